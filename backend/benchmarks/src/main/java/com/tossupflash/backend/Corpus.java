@@ -0,0 +1,204 @@
+package com.tossupflash.backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Recorded QBReader query responses and Wikipedia page summaries loaded from the
+ * checked-in corpus (backend/corpus)
+ */
+public final class Corpus {
+    
+    private static final String QBREADER_FILE = "/qbreader-query.json";
+    private static final String WIKIPEDIA_FILE = "/wikipedia-summary.json";
+    private static final String EMPTY_QUERY_RESPONSE = "{\"tossups\":{\"count\":0,\"questionArray\":[]}}";
+    private static final String NOT_FOUND_RESPONSE = 
+        "{\"type\":\"https://mediawiki.org/wiki/HyperSwitch/errors/not_found\",\"title\":\"Not found.\"}";
+    
+    private final Map<String, String> queryResponses = new HashMap<>();
+    private final Map<String, List<String>> questionsByTopic = new LinkedHashMap<>();
+    private final Map<String, String> summaryResponses = new HashMap<>();
+    private final List<String> summaryExtracts = new ArrayList<>();
+    private final Map<String, String> extractsByTitle = new LinkedHashMap<>();
+    
+    private Corpus() {
+    }
+    
+    public static Corpus load() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Corpus corpus = new Corpus();
+        
+        JsonNode queries = readJson(objectMapper, QBREADER_FILE);
+        queries.fields().forEachRemaining(entry -> {
+            corpus.queryResponses.put(entry.getKey().toLowerCase(Locale.ROOT), entry.getValue().toString());
+            List<String> questions = new ArrayList<>();
+            for (JsonNode tossup : entry.getValue().get("tossups").get("questionArray")) {
+                questions.add(tossup.get("question").asText());
+            }
+            corpus.questionsByTopic.put(entry.getKey(), questions);
+        });
+        
+        JsonNode summaries = readJson(objectMapper, WIKIPEDIA_FILE);
+        summaries.fields().forEachRemaining(entry -> {
+            corpus.summaryResponses.put(entry.getKey(), entry.getValue().toString());
+            corpus.summaryExtracts.add(entry.getValue().get("extract").asText());
+            corpus.extractsByTitle.put(entry.getKey(), entry.getValue().get("extract").asText());
+        });
+        
+        return corpus;
+    }
+    
+    private static JsonNode readJson(ObjectMapper objectMapper, String resource) {
+        try (InputStream in = Corpus.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Corpus resource missing: " + resource);
+            }
+            return objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public List<String> topics() {
+        return new ArrayList<>(questionsByTopic.keySet());
+    }
+    
+    public List<String> questions(String topic) {
+        return Collections.unmodifiableList(questionsByTopic.get(topic));
+    }
+    
+    public List<String> allQuestions() {
+        List<String> all = new ArrayList<>();
+        questionsByTopic.values().forEach(all::addAll);
+        return all;
+    }
+    
+    public List<String> summaryExtracts() {
+        return Collections.unmodifiableList(summaryExtracts);
+    }
+    
+    /**
+     * Writes the recorded summaries out as a Wikimedia abstracts dump and ingests it, giving the
+     * same articles as {@link #replayingRestTemplate()} through the offline summary provider
+     */
+    public AbstractStore abstractStore() {
+        try {
+            Path dir = Files.createTempDirectory("corpus-abstracts");
+            Path dump = dir.resolve("abstracts.xml");
+            try (OutputStream out = Files.newOutputStream(dump)) {
+                XMLStreamWriter writer = XMLOutputFactory.newFactory().createXMLStreamWriter(out, "UTF-8");
+                writer.writeStartDocument("UTF-8", "1.0");
+                writer.writeStartElement("feed");
+                for (Map.Entry<String, String> entry : extractsByTitle.entrySet()) {
+                    writer.writeStartElement("doc");
+                    writer.writeStartElement("title");
+                    writer.writeCharacters("Wikipedia: " + entry.getKey().replace('_', ' '));
+                    writer.writeEndElement();
+                    writer.writeStartElement("abstract");
+                    writer.writeCharacters(entry.getValue());
+                    writer.writeEndElement();
+                    writer.writeEndElement();
+                }
+                writer.writeEndElement();
+                writer.writeEndDocument();
+                writer.close();
+            }
+            Path store = dir.resolve("abstracts.store");
+            AbstractStoreBuilder.build(dump, store);
+            return AbstractStore.open(store);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not write corpus abstracts", e);
+        }
+    }
+    
+    /**
+     * Builds a RestTemplate that answers QBReader and Wikipedia requests from the corpus
+     * without touching the network. Unknown Wikipedia titles get a 404 like the live API.
+     */
+    public RestTemplate replayingRestTemplate() {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            String host = request.getURI().getHost();
+            if (host != null && host.contains("qbreader")) {
+                String queryString = UriComponentsBuilder.fromUri(request.getURI()).build()
+                        .getQueryParams().getFirst("queryString");
+                String topic = URLDecoder.decode(String.valueOf(queryString), StandardCharsets.UTF_8);
+                String response = queryResponses.getOrDefault(topic.toLowerCase(Locale.ROOT), EMPTY_QUERY_RESPONSE);
+                return new ReplayResponse(HttpStatus.OK, response);
+            }
+            
+            String path = request.getURI().getRawPath();
+            String title = URLDecoder.decode(path.substring(path.lastIndexOf('/') + 1), StandardCharsets.UTF_8);
+            String response = summaryResponses.get(title);
+            return response != null 
+                ? new ReplayResponse(HttpStatus.OK, response)
+                : new ReplayResponse(HttpStatus.NOT_FOUND, NOT_FOUND_RESPONSE);
+        });
+        return restTemplate;
+    }
+    
+    private static class ReplayResponse implements ClientHttpResponse {
+        private final HttpStatus status;
+        private final byte[] body;
+        private final HttpHeaders headers = new HttpHeaders();
+        
+        ReplayResponse(HttpStatus status, String body) {
+            this.status = status;
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+            this.headers.setContentType(MediaType.APPLICATION_JSON);
+            this.headers.setContentLength(this.body.length);
+        }
+        
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+        
+        @Override
+        public String getStatusText() {
+            return status.getReasonPhrase();
+        }
+        
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+        
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+}
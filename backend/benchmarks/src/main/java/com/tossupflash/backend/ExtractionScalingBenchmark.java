@@ -0,0 +1,78 @@
+package com.tossupflash.backend;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phrase ranking and context scoring as the tossup set grows. Larger sets are built by cycling
+ * the recorded questions. Each operation runs inside a fork-join pool of the given
+ * parallelism, so one fork measures how extraction scales with cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionScalingBenchmark {
+    
+    @Param({"8", "100", "1000"})
+    public int tossups;
+    
+    @Param({"1", "2", "4"})
+    public int parallelism;
+    
+    private FlashcardService flashcardService;
+    private ForkJoinPool pool;
+    private List<String> questions;
+    private List<String> phrases;
+    
+    @Setup
+    public void setUp() {
+        Corpus corpus = Corpus.load();
+        FlashcardProperties properties = new FlashcardProperties();
+        properties.getCache().setEnabled(false);
+        PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+        RestTemplate restTemplate = corpus.replayingRestTemplate();
+        flashcardService = new FlashcardService(
+            restTemplate, metrics, properties, new SyncTaskExecutor(),
+            new FlashcardCaches(properties, new LocalRemoteCache(1), metrics), TitleIndex.passThrough(),
+            new WikipediaApiSummaryProvider(restTemplate, properties), new StandardEnvironment());
+        
+        List<String> recorded = corpus.allQuestions();
+        questions = new ArrayList<>(tossups);
+        for (int i = 0; i < tossups; i++) {
+            questions.add(recorded.get(i % recorded.size()));
+        }
+        pool = new ForkJoinPool(parallelism);
+        phrases = flashcardService.rankCandidatePhrases(questions, properties.getGeneration().getTargetCards());
+    }
+    
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+    
+    @Benchmark
+    public List<String> rankCandidatePhrases() {
+        // Parallel streams started inside a pool task run in that pool
+        return pool.submit(() -> flashcardService.rankCandidatePhrases(questions, 30)).join();
+    }
+    
+    @Benchmark
+    public void findBestContext(Blackhole blackhole) {
+        pool.submit(() -> {
+            for (String phrase : phrases) {
+                blackhole.consume(flashcardService.findBestContextForPhrase(phrase, questions));
+            }
+        }).join();
+    }
+}
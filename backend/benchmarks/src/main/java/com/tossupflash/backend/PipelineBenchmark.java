@@ -0,0 +1,54 @@
+package com.tossupflash.backend;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end generateFlashcards with QBReader and Wikipedia replayed from the corpus,
+ * so only parsing, extraction, scoring and card assembly are measured
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+    
+    @Param({"Cold War", "Photosynthesis", "Treaty of Versailles", "Jane Austen"})
+    public String topic;
+    
+    // "api" replays recorded REST responses; "store" reads the same articles from an abstracts store
+    @Param({"api", "store"})
+    public String summaries;
+    
+    private FlashcardService flashcardService;
+    
+    @Setup
+    public void setUp() {
+        Corpus corpus = Corpus.load();
+        FlashcardProperties properties = new FlashcardProperties();
+        properties.getWikipedia().setRequestDelayMs(0);
+        // Measure the pipeline itself, not cache hits on repeated topics
+        properties.getCache().setEnabled(false);
+        PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+        RestTemplate restTemplate = corpus.replayingRestTemplate();
+        SummaryProvider summaryProvider = summaries.equals("store")
+            ? corpus.abstractStore()
+            : new WikipediaApiSummaryProvider(restTemplate, properties);
+        flashcardService = new FlashcardService(
+            restTemplate, metrics, properties, new SyncTaskExecutor(),
+            new FlashcardCaches(properties, new LocalRemoteCache(1), metrics), TitleIndex.passThrough(),
+            summaryProvider, new StandardEnvironment());
+    }
+    
+    @Benchmark
+    public List<Flashcard> generateFlashcards() {
+        return flashcardService.generateFlashcards(topic);
+    }
+}
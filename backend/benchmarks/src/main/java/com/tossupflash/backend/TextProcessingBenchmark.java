@@ -0,0 +1,68 @@
+package com.tossupflash.backend;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the text-processing hot path in FlashcardService over the recorded corpus.
+ * Run through BenchmarkRunner to also report allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextProcessingBenchmark {
+    
+    @Param({"Cold War", "Photosynthesis", "Treaty of Versailles", "Jane Austen"})
+    public String topic;
+    
+    private FlashcardService flashcardService;
+    private List<String> questions;
+    private List<String> phrases;
+    private List<String> summaries;
+    
+    @Setup
+    public void setUp() {
+        Corpus corpus = Corpus.load();
+        FlashcardProperties properties = new FlashcardProperties();
+        properties.getWikipedia().setRequestDelayMs(0);
+        // Measure the pipeline itself, not cache hits on repeated topics
+        properties.getCache().setEnabled(false);
+        PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+        RestTemplate restTemplate = corpus.replayingRestTemplate();
+        flashcardService = new FlashcardService(
+            restTemplate, metrics, properties, new SyncTaskExecutor(),
+            new FlashcardCaches(properties, new LocalRemoteCache(1), metrics), TitleIndex.passThrough(),
+            new WikipediaApiSummaryProvider(restTemplate, properties), new StandardEnvironment());
+        questions = corpus.questions(topic);
+        phrases = flashcardService.extractTopPhrasesFromTossups(questions);
+        summaries = corpus.summaryExtracts();
+    }
+    
+    @Benchmark
+    public List<String> extractTopPhrases() {
+        return flashcardService.extractTopPhrasesFromTossups(questions);
+    }
+    
+    @Benchmark
+    public void findBestContext(Blackhole blackhole) {
+        for (String phrase : phrases) {
+            blackhole.consume(flashcardService.findBestContextForPhrase(phrase, questions));
+        }
+    }
+    
+    @Benchmark
+    public void extractFirstTwoSentences(Blackhole blackhole) {
+        for (String summary : summaries) {
+            blackhole.consume(SummaryText.firstTwoSentences(summary));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+# Compares backend startup across packaging options. For each variant it reports the median of
+# "process running for" from Spring's startup log (JVM start to context ready) and the wall time
+# until /actuator/health answers UP.
+#
+# Build the variants first, from backend/:
+#   ./mvnw -Paot,cds package -DskipTests          # exec jar, extracted jar, CDS archive, AOT classes
+#   ./mvnw -Pnative native:compile -DskipTests    # optional, needs GraalVM
+#
+# Usage: benchmarks/startup-benchmark.sh [runs]
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+MANAGEMENT_PORT=${MANAGEMENT_PORT:-18081}
+JAR=target/backend-0.0.1-SNAPSHOT-exec.jar
+CDS_DIR=target/cds
+EXTRACTED=$CDS_DIR/backend-0.0.1-SNAPSHOT-exec.jar
+AOT_MARKER=target/classes/com/tossupflash/backend/BackendApplication__ApplicationContextInitializer.class
+NATIVE=target/backend
+LOG=$(mktemp)
+trap 'rm -f "$LOG"' EXIT
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+measure() {
+    local name=$1
+    shift
+    local started=() ready=()
+    for ((run = 0; run < RUNS; run++)); do
+        local begin=$(date +%s%N)
+        "$@" --server.port="$PORT" --management.server.port="$MANAGEMENT_PORT" > "$LOG" 2>&1 &
+        local pid=$!
+        until curl -sf "http://localhost:$MANAGEMENT_PORT/actuator/health" > /dev/null; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                echo "$name failed to start, see output below" >&2
+                cat "$LOG" >&2
+                return 1
+            fi
+            sleep 0.02
+        done
+        ready+=($((($(date +%s%N) - begin) / 1000000)))
+        started+=("$(grep -o 'process running for [0-9.]*' "$LOG" | grep -o '[0-9.]*$')")
+        kill "$pid"
+        wait "$pid" 2> /dev/null || true
+    done
+    printf '%-28s %12s %12s\n' "$name" \
+        "$(printf '%s\n' "${started[@]}" | median)" \
+        "$(printf '%s\n' "${ready[@]}" | median)"
+}
+
+printf '%-28s %12s %12s\n' "variant" "started (s)" "ready (ms)"
+measure "exec jar" java -jar "$JAR"
+measure "exec jar, faststart" java -jar "$JAR" --spring.profiles.active=faststart
+if [[ -f $EXTRACTED ]]; then
+    measure "extracted" java -jar "$EXTRACTED"
+    if [[ -f $AOT_MARKER ]]; then
+        measure "extracted + CDS + AOT" \
+            java -XX:SharedArchiveFile="$CDS_DIR/application.jsa" -Xlog:cds=off -Dspring.aot.enabled=true -jar "$EXTRACTED"
+    else
+        measure "extracted + CDS" \
+            java -XX:SharedArchiveFile="$CDS_DIR/application.jsa" -Xlog:cds=off -jar "$EXTRACTED"
+    fi
+else
+    echo "(no $CDS_DIR: build with -Pcds for the extracted and CDS variants)"
+fi
+if [[ -x $NATIVE ]]; then
+    measure "native image" "$NATIVE"
+fi
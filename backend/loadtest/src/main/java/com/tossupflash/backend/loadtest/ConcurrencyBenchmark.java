@@ -0,0 +1,100 @@
+package com.tossupflash.backend.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fires bursts of simultaneous /flashcards requests at the in-process backend and reports how
+ * many generations actually ran concurrently (Little's law: total request time / wall time),
+ * latency, peak platform threads and heap growth per in-flight request. Run once with the
+ * default thread mode and once with {@code --spring.threads.virtual.enabled=true} on Java 21+
+ * to compare them.
+ */
+public class ConcurrencyBenchmark {
+    
+    private final String target;
+    private final List<String> topics;
+    private final String threadMode;
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(30))
+        .build();
+    
+    public ConcurrencyBenchmark(String target, List<String> topics, String threadMode) {
+        this.target = target;
+        this.topics = topics;
+        this.threadMode = threadMode;
+    }
+    
+    public void run(int[] levels) throws InterruptedException {
+        System.out.println("Thread mode: " + threadMode + ", Java " + Runtime.version().feature());
+        System.out.printf("%8s %10s %12s %10s %10s %12s %14s%n",
+            "burst", "wall ms", "concurrency", "p50 ms", "max ms", "peak threads", "heap KB/req");
+        
+        for (int level : levels) {
+            measure(level);
+        }
+    }
+    
+    private void measure(int burst) throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        Thread.sleep(200);
+        long baselineHeap = memory.getHeapMemoryUsage().getUsed();
+        threads.resetPeakThreadCount();
+        
+        AtomicLong peakHeap = new AtomicLong(baselineHeap);
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "heap-sampler");
+        sampler.start();
+        
+        long[] latencies = new long[burst];
+        List<CompletableFuture<?>> requests = new ArrayList<>(burst);
+        long start = System.nanoTime();
+        for (int i = 0; i < burst; i++) {
+            int index = i;
+            String topic = topics.get(i % topics.size());
+            HttpRequest request = HttpRequest.newBuilder(URI.create(
+                    target + "/flashcards?topic=" + URLEncoder.encode(topic, StandardCharsets.UTF_8)))
+                .timeout(Duration.ofMinutes(5))
+                .build();
+            long sent = System.nanoTime();
+            requests.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> latencies[index] = System.nanoTime() - sent));
+        }
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+        long wallNanos = System.nanoTime() - start;
+        sampler.interrupt();
+        sampler.join();
+        
+        Arrays.sort(latencies);
+        double concurrency = Arrays.stream(latencies).sum() / (double) wallNanos;
+        long heapGrowth = Math.max(0, peakHeap.get() - baselineHeap);
+        System.out.printf("%8d %10d %12.1f %10d %10d %12d %14d%n",
+            burst, wallNanos / 1_000_000, concurrency,
+            latencies[burst / 2] / 1_000_000, latencies[burst - 1] / 1_000_000,
+            threads.getPeakThreadCount(), heapGrowth / 1024 / burst);
+    }
+}
@@ -0,0 +1,72 @@
+package com.tossupflash.backend.loadtest;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Artificial response delay for a stub upstream. Specs:
+ * <ul>
+ *   <li>{@code none}</li>
+ *   <li>{@code fixed:50} - always 50 ms</li>
+ *   <li>{@code uniform:20-80} - uniformly between 20 and 80 ms</li>
+ *   <li>{@code lognormal:120:0.5} - log-normal with a 120 ms median and sigma 0.5 (long right tail)</li>
+ * </ul>
+ */
+public final class LatencyModel {
+    
+    private enum Kind { NONE, FIXED, UNIFORM, LOGNORMAL }
+    
+    private final Kind kind;
+    private final double a;
+    private final double b;
+    private final String spec;
+    
+    private LatencyModel(Kind kind, double a, double b, String spec) {
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+        this.spec = spec;
+    }
+    
+    public static LatencyModel parse(String spec) {
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        try {
+            switch (parts[0]) {
+                case "none":
+                    return new LatencyModel(Kind.NONE, 0, 0, spec);
+                case "fixed":
+                    return new LatencyModel(Kind.FIXED, Double.parseDouble(parts[1]), 0, spec);
+                case "uniform": {
+                    String[] range = parts[1].split("-");
+                    return new LatencyModel(Kind.UNIFORM, Double.parseDouble(range[0]), Double.parseDouble(range[1]), spec);
+                }
+                case "lognormal":
+                    return new LatencyModel(Kind.LOGNORMAL, Math.log(Double.parseDouble(parts[1])), 
+                        Double.parseDouble(parts[2]), spec);
+                default:
+                    throw new IllegalArgumentException("Unknown latency model: " + spec);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed latency model: " + spec, e);
+        }
+    }
+    
+    public long sampleMillis() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (kind) {
+            case FIXED:
+                return Math.round(a);
+            case UNIFORM:
+                return Math.round(a + random.nextDouble() * (b - a));
+            case LOGNORMAL:
+                return Math.round(Math.exp(a + b * random.nextGaussian()));
+            default:
+                return 0;
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
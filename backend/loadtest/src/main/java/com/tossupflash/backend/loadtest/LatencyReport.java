@@ -0,0 +1,75 @@
+package com.tossupflash.backend.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms (microsecond resolution) and error counts
+ */
+public class LatencyReport {
+    
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private volatile boolean recording = true;
+    
+    public LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+    
+    public void record(Operation operation, long nanos, boolean success) {
+        if (!recording) {
+            return;
+        }
+        histograms.get(operation).recordValue(Math.min(MAX_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+    
+    /**
+     * Drops everything recorded so far (used at the end of warm-up)
+     */
+    public void reset() {
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+    
+    public void stop() {
+        recording = false;
+    }
+    
+    public void print(PrintStream out, double elapsedSeconds) {
+        out.printf("%-10s %9s %8s %10s %10s %10s %10s %10s%n",
+            "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        long totalRequests = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            long count = histogram.getTotalCount();
+            totalRequests += count;
+            if (count == 0) {
+                continue;
+            }
+            out.printf("%-10s %9d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                operation.label(), count, errors.get(operation).sum(), count / elapsedSeconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+        }
+        out.printf("%-10s %9d %8s %10.1f%n", "total", totalRequests, "", totalRequests / elapsedSeconds);
+    }
+    
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
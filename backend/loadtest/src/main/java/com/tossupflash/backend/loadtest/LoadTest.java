@@ -0,0 +1,192 @@
+package com.tossupflash.backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tossupflash.backend.BackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts stub QBReader and Wikipedia servers, boots the backend against them (or targets an
+ * already running backend), drives a mixed workload and prints per-endpoint throughput and
+ * p50/p99/p999 latency.
+ *
+ * <pre>
+ * java -jar target/backend-loadtest-0.0.1-SNAPSHOT.jar --users=32 --duration=60s \
+ *     --qbreader-latency=lognormal:150:0.4 --wikipedia-error-rate=0.02
+ * </pre>
+ *
+ * {@code --scenario=concurrency} runs {@link ConcurrencyBenchmark} instead of the mixed workload.
+ *
+ * Arguments that are not load-test options (e.g. {@code --flashcards.wikipedia.request-delay-ms=0})
+ * are passed through to the in-process backend.
+ */
+public class LoadTest {
+    
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+    
+    static {
+        DEFAULTS.put("users", "16");
+        DEFAULTS.put("duration", "60s");
+        DEFAULTS.put("warmup", "10s");
+        DEFAULTS.put("mix", "generate:20,save:25,list:35,delete:10,login:10");
+        DEFAULTS.put("qbreader-latency", "lognormal:150:0.4");
+        DEFAULTS.put("qbreader-error-rate", "0.01");
+        DEFAULTS.put("wikipedia-latency", "lognormal:80:0.5");
+        DEFAULTS.put("wikipedia-error-rate", "0.01");
+        DEFAULTS.put("target", "");
+        DEFAULTS.put("stubs-only", "false");
+        DEFAULTS.put("scenario", "mixed");
+        DEFAULTS.put("levels", "100,500,1000,2000");
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        List<String> backendArgs = new ArrayList<>();
+        for (String arg : args) {
+            String key = arg.startsWith("--") ? arg.substring(2).split("=", 2)[0] : arg;
+            if (DEFAULTS.containsKey(key)) {
+                options.put(key, arg.contains("=") ? arg.substring(arg.indexOf('=') + 1) : "true");
+            } else {
+                backendArgs.add(arg);
+            }
+        }
+        
+        StubUpstreams.Behaviour qbreader = new StubUpstreams.Behaviour(
+            LatencyModel.parse(options.get("qbreader-latency")), Double.parseDouble(options.get("qbreader-error-rate")));
+        StubUpstreams.Behaviour wikipedia = new StubUpstreams.Behaviour(
+            LatencyModel.parse(options.get("wikipedia-latency")), Double.parseDouble(options.get("wikipedia-error-rate")));
+        
+        try (StubUpstreams stubs = new StubUpstreams(qbreader, wikipedia)) {
+            stubs.start();
+            System.out.println("QBReader stub:  " + stubs.qbreaderBaseUrl() + " (" + qbreader + ")");
+            System.out.println("Wikipedia stub: " + stubs.wikipediaBaseUrl() + " (" + wikipedia + ")");
+            
+            if (Boolean.parseBoolean(options.get("stubs-only"))) {
+                System.out.println("Start the backend with:");
+                System.out.println("  --flashcards.qbreader.base-url=" + stubs.qbreaderBaseUrl()
+                    + " --flashcards.wikipedia.base-url=" + stubs.wikipediaBaseUrl());
+                Thread.currentThread().join();
+            }
+            
+            ConfigurableApplicationContext backend = null;
+            String target = options.get("target");
+            if (target.isEmpty()) {
+                backend = startBackend(stubs, backendArgs);
+                target = "http://127.0.0.1:" + ((WebServerApplicationContext) backend).getWebServer().getPort();
+            }
+            
+            try {
+                if ("concurrency".equals(options.get("scenario"))) {
+                    int[] levels = Arrays.stream(options.get("levels").split(","))
+                        .mapToInt(level -> Integer.parseInt(level.trim())).toArray();
+                    String threadMode = backend == null ? "external backend"
+                        : backend.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                            ? "virtual" : "platform";
+                    new ConcurrencyBenchmark(target, stubs.topics(), threadMode).run(levels);
+                } else {
+                    run(target, stubs.topics(), options);
+                }
+            } finally {
+                if (backend != null) {
+                    backend.close();
+                }
+            }
+        }
+    }
+    
+    private static ConfigurableApplicationContext startBackend(StubUpstreams stubs, List<String> extraArgs) {
+        List<String> args = new ArrayList<>();
+        args.add("--server.port=0");
+        args.add("--management.server.port=0");
+        args.add("--flashcards.qbreader.base-url=" + stubs.qbreaderBaseUrl());
+        args.add("--flashcards.wikipedia.base-url=" + stubs.wikipediaBaseUrl());
+        args.add("--logging.level.com.tossupflash.backend=WARN");
+        // Measure the pipeline, not admission limits or cache hits; override these to re-enable them
+        args.add("--flashcards.admission.max-concurrent=0");
+        args.add("--flashcards.admission.refill-per-minute=0");
+        args.add("--flashcards.cache.enabled=false");
+        args.addAll(extraArgs);
+        return new SpringApplicationBuilder(BackendApplication.class).run(args.toArray(new String[0]));
+    }
+    
+    private static void run(String target, List<String> topics, Map<String, String> options) throws Exception {
+        int users = Integer.parseInt(options.get("users"));
+        Duration warmup = parseDuration(options.get("warmup"));
+        Duration duration = parseDuration(options.get("duration"));
+        WorkloadMix mix = WorkloadMix.parse(options.get("mix"));
+        
+        System.out.println("Target " + target + ", " + users + " users, warm-up " + warmup 
+            + ", measuring " + duration + ", mix " + mix);
+        
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        LatencyReport report = new LatencyReport();
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        
+        long[] deadline = { Long.MAX_VALUE };
+        List<VirtualUser> virtualUsers = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            VirtualUser user = new VirtualUser(client, objectMapper, target, "lt-" + runId + "-" + i,
+                topics, mix, report, () -> System.nanoTime() < deadline[0]);
+            user.register();
+            virtualUsers.add(user);
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        CountDownLatch done = new CountDownLatch(users);
+        long start = System.nanoTime();
+        deadline[0] = start + warmup.toNanos() + duration.toNanos();
+        for (VirtualUser user : virtualUsers) {
+            executor.execute(() -> {
+                try {
+                    user.run();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        
+        Thread.sleep(warmup.toMillis());
+        report.reset();
+        long measureStart = System.nanoTime();
+        
+        done.await();
+        report.stop();
+        double elapsedSeconds = (System.nanoTime() - measureStart) / 1e9;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        
+        System.out.println();
+        report.print(System.out, elapsedSeconds);
+    }
+    
+    static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+}
@@ -0,0 +1,28 @@
+package com.tossupflash.backend.loadtest;
+
+import java.util.Locale;
+
+/**
+ * Endpoints exercised by the load test
+ */
+public enum Operation {
+    GENERATE("generate"),
+    SAVE("save"),
+    LIST("list"),
+    DELETE("delete"),
+    LOGIN("login");
+    
+    private final String label;
+    
+    Operation(String label) {
+        this.label = label;
+    }
+    
+    public String label() {
+        return label;
+    }
+    
+    public static Operation fromLabel(String label) {
+        return valueOf(label.trim().toUpperCase(Locale.ROOT));
+    }
+}
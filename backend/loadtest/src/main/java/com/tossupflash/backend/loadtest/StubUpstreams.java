@@ -0,0 +1,197 @@
+package com.tossupflash.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-ins for the QBReader {@code /api/query} and Wikipedia {@code /api/rest_v1/page/summary}
+ * endpoints. They replay the recorded corpus with configurable latency and error rate.
+ */
+public class StubUpstreams implements AutoCloseable {
+    
+    private static final String EMPTY_QUERY_RESPONSE = "{\"tossups\":{\"count\":0,\"questionArray\":[]}}";
+    private static final String NOT_FOUND_RESPONSE = 
+        "{\"type\":\"https://mediawiki.org/wiki/HyperSwitch/errors/not_found\",\"title\":\"Not found.\"}";
+    
+    /**
+     * Latency and failure behaviour of one stub
+     */
+    public static class Behaviour {
+        final LatencyModel latency;
+        final double errorRate;
+        
+        public Behaviour(LatencyModel latency, double errorRate) {
+            this.latency = latency;
+            this.errorRate = errorRate;
+        }
+        
+        @Override
+        public String toString() {
+            return "latency=" + latency + ", errorRate=" + errorRate;
+        }
+    }
+    
+    private final Map<String, String> queryResponses = new LinkedHashMap<>();
+    private final Map<String, String> summaryResponses = new HashMap<>();
+    private final Behaviour qbreaderBehaviour;
+    private final Behaviour wikipediaBehaviour;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private HttpServer qbreader;
+    private HttpServer wikipedia;
+    
+    public StubUpstreams(Behaviour qbreaderBehaviour, Behaviour wikipediaBehaviour) {
+        this.qbreaderBehaviour = qbreaderBehaviour;
+        this.wikipediaBehaviour = wikipediaBehaviour;
+        
+        ObjectMapper objectMapper = new ObjectMapper();
+        readJson(objectMapper, "/qbreader-query.json").fields().forEachRemaining(entry -> 
+            queryResponses.put(entry.getKey().toLowerCase(Locale.ROOT), entry.getValue().toString()));
+        readJson(objectMapper, "/wikipedia-summary.json").fields().forEachRemaining(entry -> 
+            summaryResponses.put(entry.getKey(), entry.getValue().toString()));
+    }
+    
+    private static JsonNode readJson(ObjectMapper objectMapper, String resource) {
+        try (InputStream in = StubUpstreams.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Corpus resource missing: " + resource);
+            }
+            return objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public void start() throws IOException {
+        qbreader = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        qbreader.createContext("/api/query", exchange -> 
+            respond(exchange, qbreaderBehaviour, () -> new Reply(200, queryResponse(exchange.getRequestURI()))));
+        qbreader.setExecutor(executor);
+        qbreader.start();
+        
+        wikipedia = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        wikipedia.createContext("/api/rest_v1/page/summary/", exchange -> 
+            respond(exchange, wikipediaBehaviour, () -> summaryResponse(exchange.getRequestURI())));
+        wikipedia.setExecutor(executor);
+        wikipedia.start();
+    }
+    
+    public String qbreaderBaseUrl() {
+        return "http://127.0.0.1:" + qbreader.getAddress().getPort();
+    }
+    
+    public String wikipediaBaseUrl() {
+        return "http://127.0.0.1:" + wikipedia.getAddress().getPort();
+    }
+    
+    public List<String> topics() {
+        return new ArrayList<>(queryResponses.keySet());
+    }
+    
+    /**
+     * Exact (answer) searches match a recorded topic. Single-word broad searches return the
+     * first recorded topic that contains the word, like a loose full-text match would.
+     */
+    private String queryResponse(URI uri) {
+        String queryString = queryParam(uri, "queryString").toLowerCase(Locale.ROOT);
+        String exact = queryResponses.get(queryString);
+        if (exact != null) {
+            return exact;
+        }
+        if ("all".equals(queryParam(uri, "searchType"))) {
+            for (Map.Entry<String, String> entry : queryResponses.entrySet()) {
+                if (entry.getKey().contains(queryString)) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return EMPTY_QUERY_RESPONSE;
+    }
+    
+    private Reply summaryResponse(URI uri) {
+        String path = uri.getRawPath();
+        String title = URLDecoder.decode(path.substring(path.lastIndexOf('/') + 1), StandardCharsets.UTF_8);
+        String response = summaryResponses.get(title);
+        return response != null ? new Reply(200, response) : new Reply(404, NOT_FOUND_RESPONSE);
+    }
+    
+    private static String queryParam(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return "";
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return "";
+    }
+    
+    private interface ReplySupplier {
+        Reply get();
+    }
+    
+    private static class Reply {
+        final int status;
+        final String body;
+        
+        Reply(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+    
+    private static void respond(HttpExchange exchange, Behaviour behaviour, ReplySupplier supplier) throws IOException {
+        try {
+            long delay = behaviour.latency.sampleMillis();
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            Reply reply = ThreadLocalRandom.current().nextDouble() < behaviour.errorRate
+                ? new Reply(503, "{\"error\":\"injected failure\"}")
+                : supplier.get();
+            
+            byte[] body = reply.body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(reply.status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    @Override
+    public void close() {
+        if (qbreader != null) {
+            qbreader.stop(0);
+        }
+        if (wikipedia != null) {
+            wikipedia.stop(0);
+        }
+        executor.shutdownNow();
+    }
+}
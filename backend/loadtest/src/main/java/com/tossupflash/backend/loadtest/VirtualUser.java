@@ -0,0 +1,148 @@
+package com.tossupflash.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * One simulated client: registers its own account, then loops over the workload mix
+ * until told to stop, recording each request in the shared report
+ */
+public class VirtualUser implements Runnable {
+    
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final String CARD_BACK = "Context: " + "Recorded tossup context for load testing. ".repeat(12) 
+        + "\n\nWikipedia: " + "Recorded summary text for load testing. ".repeat(24);
+    
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String username;
+    private final String password = "load-test-password";
+    private final List<String> topics;
+    private final WorkloadMix mix;
+    private final LatencyReport report;
+    private final BooleanSupplier running;
+    private final Deque<Long> savedIds = new ArrayDeque<>();
+    private String token;
+    
+    public VirtualUser(HttpClient client, ObjectMapper objectMapper, String baseUrl, String username,
+                       List<String> topics, WorkloadMix mix, LatencyReport report, BooleanSupplier running) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.username = username;
+        this.topics = topics;
+        this.mix = mix;
+        this.report = report;
+        this.running = running;
+    }
+    
+    /**
+     * Creates the account this user logs in with. Not recorded in the report.
+     */
+    public void register() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(jsonPost("/auth/register", Map.of(
+            "username", username, "email", username + "@loadtest.invalid", "password", password)));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Registration failed for " + username + ": " + response.body());
+        }
+        token = objectMapper.readTree(response.body()).get("token").asText();
+    }
+    
+    @Override
+    public void run() {
+        while (running.getAsBoolean()) {
+            Operation operation = mix.next();
+            if (operation == Operation.DELETE && savedIds.isEmpty()) {
+                operation = Operation.SAVE;
+            }
+            
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                success = execute(operation);
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            report.record(operation, System.nanoTime() - start, success);
+        }
+    }
+    
+    private boolean execute(Operation operation) throws IOException, InterruptedException {
+        switch (operation) {
+            case GENERATE: {
+                String topic = topics.get(ThreadLocalRandom.current().nextInt(topics.size()));
+                return ok(send(authorized("/flashcards?topic=" + URLEncoder.encode(topic, StandardCharsets.UTF_8)).GET()));
+            }
+            case SAVE: {
+                HttpResponse<String> response = send(authorized("/saved-flashcards")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                        "front", "Load test card " + ThreadLocalRandom.current().nextInt(1_000_000),
+                        "back", CARD_BACK,
+                        "topic", "Load Test")))));
+                if (ok(response)) {
+                    JsonNode id = objectMapper.readTree(response.body()).get("id");
+                    if (id != null && id.isNumber()) {
+                        savedIds.push(id.asLong());
+                    }
+                    return true;
+                }
+                return false;
+            }
+            case LIST:
+                return ok(send(authorized("/saved-flashcards").GET()));
+            case DELETE:
+                return ok(send(authorized("/saved-flashcards/" + savedIds.pop()).DELETE()));
+            case LOGIN: {
+                HttpResponse<String> response = send(jsonPost("/auth/login", Map.of(
+                    "username", username, "password", password)));
+                if (ok(response)) {
+                    token = objectMapper.readTree(response.body()).get("token").asText();
+                    return true;
+                }
+                return false;
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + operation);
+        }
+    }
+    
+    private static boolean ok(HttpResponse<String> response) {
+        return response.statusCode() / 100 == 2 || response.statusCode() == 304;
+    }
+    
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Authorization", "Bearer " + token);
+    }
+    
+    private HttpRequest.Builder jsonPost(String path, Map<String, String> body) throws IOException {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+    }
+    
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
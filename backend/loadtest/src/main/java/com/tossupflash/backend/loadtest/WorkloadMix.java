@@ -0,0 +1,50 @@
+package com.tossupflash.backend.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Relative weights of the operations, e.g. {@code generate:20,save:25,list:35,delete:10,login:10}
+ */
+public final class WorkloadMix {
+    
+    private final Map<Operation, Integer> weights;
+    private final int totalWeight;
+    
+    private WorkloadMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("Workload mix needs at least one positive weight");
+        }
+    }
+    
+    public static WorkloadMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed mix entry: " + entry);
+            }
+            weights.put(Operation.fromLabel(parts[0]), Integer.parseInt(parts[1].trim()));
+        }
+        return new WorkloadMix(weights);
+    }
+    
+    public Operation next() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+    
+    @Override
+    public String toString() {
+        return weights.toString();
+    }
+}
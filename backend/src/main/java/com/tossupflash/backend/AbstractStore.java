@@ -0,0 +1,204 @@
+package com.tossupflash.backend;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Offline {@link SummaryProvider} over a Wikipedia abstracts dump, ingested by
+ * {@link AbstractStoreBuilder}. Summaries are already cut to two sentences at ingest, so a lookup
+ * is a binary search over the sparse block index (kept on the heap) and one block inflate from
+ * the memory-mapped file; no network call is ever made.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ *   int magic, int version
+ *   blocks           deflated; each holds up to {@value #BLOCK_ENTRIES} sorted entries of
+ *                    varint keyLength, key, varint summaryLength, summary
+ *   sparse index     per block: varint firstKeyLength, firstKey, long offset, int compressedLength,
+ *                    int rawLength
+ *   footer           long indexOffset, int blockCount, int entryCount, int magic
+ * </pre>
+ * Files larger than one mapping are mapped in segments that always start on a block boundary.
+ */
+public class AbstractStore implements SummaryProvider {
+    
+    static final int MAGIC = 0x41425354; // "ABST"
+    static final int VERSION = 1;
+    static final int BLOCK_ENTRIES = 64;
+    static final int HEADER_BYTES = 8;
+    static final int FOOTER_BYTES = 20;
+    
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+    
+    private final byte[][] firstKeys;
+    private final int[] blockSegment;
+    private final int[] blockPosition;
+    private final int[] compressedLength;
+    private final int[] rawLength;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final int entryCount;
+    
+    private AbstractStore(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, size - FOOTER_BYTES, FOOTER_BYTES);
+        long indexOffset = footer.getLong();
+        int blockCount = footer.getInt();
+        this.entryCount = footer.getInt();
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if (footer.getInt() != MAGIC || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IllegalArgumentException("Not an abstracts store (version " + VERSION + ")");
+        }
+        
+        this.firstKeys = new byte[blockCount][];
+        this.blockSegment = new int[blockCount];
+        this.blockPosition = new int[blockCount];
+        this.compressedLength = new int[blockCount];
+        this.rawLength = new int[blockCount];
+        
+        ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, size - FOOTER_BYTES - indexOffset);
+        long[] offsets = new long[blockCount];
+        for (int block = 0; block < blockCount; block++) {
+            firstKeys[block] = new byte[readVarint(index)];
+            index.get(firstKeys[block]);
+            offsets[block] = index.getLong();
+            compressedLength[block] = index.getInt();
+            rawLength[block] = index.getInt();
+        }
+        
+        // Group consecutive blocks into mappings of at most MAX_SEGMENT_BYTES
+        int block = 0;
+        while (block < blockCount) {
+            long segmentStart = offsets[block];
+            int last = block;
+            while (last + 1 < blockCount
+                    && offsets[last + 1] + compressedLength[last + 1] - segmentStart <= MAX_SEGMENT_BYTES) {
+                last++;
+            }
+            long segmentEnd = offsets[last] + compressedLength[last];
+            segments.add(channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, segmentEnd - segmentStart));
+            for (int i = block; i <= last; i++) {
+                blockSegment[i] = segments.size() - 1;
+                blockPosition[i] = (int) (offsets[i] - segmentStart);
+            }
+            block = last + 1;
+        }
+    }
+    
+    /**
+     * Memory-maps a store file and loads its sparse index
+     * @param path File written by {@link AbstractStoreBuilder}
+     * @return The opened store
+     * @throws IOException if the file cannot be read
+     */
+    public static AbstractStore open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new AbstractStore(channel);
+        }
+    }
+    
+    @Override
+    public String summary(String title) {
+        byte[] key = key(title).getBytes(StandardCharsets.UTF_8);
+        
+        // Last block whose first key is <= the wanted key
+        int low = 0;
+        int high = firstKeys.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Arrays.compareUnsigned(firstKeys[mid], key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (high < 0) {
+            return "";
+        }
+        
+        ByteBuffer entries = ByteBuffer.wrap(inflate(high));
+        while (entries.hasRemaining()) {
+            byte[] entryKey = new byte[readVarint(entries)];
+            entries.get(entryKey);
+            int summaryLength = readVarint(entries);
+            int comparison = Arrays.compareUnsigned(entryKey, key);
+            if (comparison == 0) {
+                return new String(entries.array(), entries.position(), summaryLength, StandardCharsets.UTF_8);
+            }
+            if (comparison > 0) {
+                break;
+            }
+            entries.position(entries.position() + summaryLength);
+        }
+        // Not in the dump: treated like a Wikipedia 404
+        return "";
+    }
+    
+    @Override
+    public boolean isRemote() {
+        return false;
+    }
+    
+    /**
+     * @return Number of abstracts in the store
+     */
+    public int size() {
+        return entryCount;
+    }
+    
+    private byte[] inflate(int block) {
+        ByteBuffer compressed = segments.get(blockSegment[block]).slice(blockPosition[block], compressedLength[block]);
+        byte[] raw = new byte[rawLength[block]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                read += inflater.inflate(raw, read, raw.length - read);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt abstracts block " + block, e);
+        } finally {
+            inflater.end();
+        }
+    }
+    
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+    
+    /**
+     * Store key for a title: underscored, with the first letter upper case as Wikipedia does. The
+     * rest keeps its case, since titles such as "NICE" and "Nice" are different articles; the
+     * title index has already resolved phrases to the article's capitalisation.
+     */
+    static String key(String title) {
+        String underscored = title.trim().replace(' ', '_');
+        if (underscored.isEmpty()) {
+            return underscored;
+        }
+        int first = underscored.codePointAt(0);
+        return new StringBuilder(underscored.length())
+                .appendCodePoint(Character.toUpperCase(first))
+                .append(underscored, Character.charCount(first), underscored.length())
+                .toString();
+    }
+}
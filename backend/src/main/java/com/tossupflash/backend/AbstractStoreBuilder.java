@@ -0,0 +1,187 @@
+package com.tossupflash.backend;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Offline ingest for {@link AbstractStore}. Streams the Wikimedia abstracts dump with StAX and
+ * uses only the JDK, so it runs from the plain jar:
+ * <pre>
+ *   java -Xmx8g -cp target/backend-0.0.1-SNAPSHOT.jar com.tossupflash.backend.AbstractStoreBuilder \
+ *       enwiki-latest-abstract.xml.gz abstracts.store
+ * </pre>
+ * Each {@code <doc>} contributes its {@code <title>} (minus the "Wikipedia: " prefix) and its
+ * {@code <abstract>}, cut to two sentences with {@link SummaryText} so requests don't redo it.
+ * Template and table fragments the dump sometimes has in place of prose are skipped.
+ */
+public class AbstractStoreBuilder {
+    
+    private static final String TITLE_PREFIX = "Wikipedia: ";
+    
+    public static void main(String[] args) throws IOException, XMLStreamException {
+        if (args.length != 2) {
+            System.err.println("Usage: AbstractStoreBuilder <abstracts.xml[.gz]> <output>");
+            System.exit(2);
+        }
+        Path output = Path.of(args[1]);
+        
+        long start = System.nanoTime();
+        int entries = build(Path.of(args[0]), output);
+        System.out.printf("Wrote %,d abstracts to %s (%,d bytes) in %d ms%n", entries, output, Files.size(output),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    /**
+     * Builds a store file from an abstracts dump
+     * @return Number of abstracts written
+     */
+    public static int build(Path dump, Path output) throws IOException, XMLStreamException {
+        Map<String, String> summaries = new HashMap<>();
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        
+        try (InputStream in = open(dump)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in, StandardCharsets.UTF_8.name());
+            String title = null;
+            String abstractText = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "doc" -> {
+                            title = null;
+                            abstractText = null;
+                        }
+                        case "title" -> title = reader.getElementText();
+                        case "abstract" -> abstractText = reader.getElementText();
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("doc")) {
+                    add(summaries, title, abstractText);
+                }
+            }
+            reader.close();
+        }
+        
+        List<byte[][]> entries = new ArrayList<>(summaries.size());
+        summaries.forEach((key, summary) -> entries.add(new byte[][] {
+                key.getBytes(StandardCharsets.UTF_8), summary.getBytes(StandardCharsets.UTF_8)}));
+        summaries.clear();
+        entries.sort((a, b) -> Arrays.compareUnsigned(a[0], b[0]));
+        
+        write(entries, output);
+        return entries.size();
+    }
+    
+    private static void add(Map<String, String> summaries, String title, String abstractText) {
+        if (title == null || abstractText == null) {
+            return;
+        }
+        if (title.startsWith(TITLE_PREFIX)) {
+            title = title.substring(TITLE_PREFIX.length());
+        }
+        String text = abstractText.strip();
+        // Infobox and table residue rather than an opening paragraph
+        if (title.isBlank() || text.isEmpty() || text.startsWith("|") || text.startsWith("{") || text.startsWith("!")) {
+            return;
+        }
+        String summary = SummaryText.firstTwoSentences(text);
+        if (!summary.isEmpty()) {
+            summaries.putIfAbsent(AbstractStore.key(title), summary);
+        }
+    }
+    
+    static void write(List<byte[][]> sortedEntries, Path output) throws IOException {
+        Path temp = Files.createTempFile(output.toAbsolutePath().getParent(), "abstracts", ".tmp");
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(index);
+        int blockCount = 0;
+        
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(AbstractStore.MAGIC);
+            out.writeInt(AbstractStore.VERSION);
+            long offset = AbstractStore.HEADER_BYTES;
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            byte[] buffer = new byte[1 << 16];
+            
+            for (int first = 0; first < sortedEntries.size(); first += AbstractStore.BLOCK_ENTRIES) {
+                ByteArrayOutputStream raw = new ByteArrayOutputStream();
+                int last = Math.min(first + AbstractStore.BLOCK_ENTRIES, sortedEntries.size());
+                for (int i = first; i < last; i++) {
+                    byte[] key = sortedEntries.get(i)[0];
+                    byte[] summary = sortedEntries.get(i)[1];
+                    writeVarint(raw, key.length);
+                    raw.write(key);
+                    writeVarint(raw, summary.length);
+                    raw.write(summary);
+                }
+                
+                deflater.reset();
+                deflater.setInput(raw.toByteArray());
+                deflater.finish();
+                int compressed = 0;
+                while (!deflater.finished()) {
+                    int length = deflater.deflate(buffer);
+                    out.write(buffer, 0, length);
+                    compressed += length;
+                }
+                
+                byte[] firstKey = sortedEntries.get(first)[0];
+                writeVarint(indexOut, firstKey.length);
+                indexOut.write(firstKey);
+                indexOut.writeLong(offset);
+                indexOut.writeInt(compressed);
+                indexOut.writeInt(raw.size());
+                offset += compressed;
+                blockCount++;
+            }
+            deflater.end();
+            
+            index.writeTo(out);
+            out.writeLong(offset);
+            out.writeInt(blockCount);
+            out.writeInt(sortedEntries.size());
+            out.writeInt(AbstractStore.MAGIC);
+        }
+        Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+    
+    private static InputStream open(Path path) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(path), 1 << 16);
+        if (path.getFileName().toString().endsWith(".gz")) {
+            in = new GZIPInputStream(in, 1 << 16);
+        }
+        return in;
+    }
+}
@@ -1,8 +1,11 @@
 package com.tossupflash.backend;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/auth")
@@ -14,26 +17,30 @@ public class AuthController {
     
     @PostMapping("/register")
     public ResponseEntity<AuthService.AuthResponse> register(@RequestBody RegisterRequest request) {
-        AuthService.AuthResponse response = authService.register(
+        return toResponseEntity(authService.register(
             request.getUsername(), 
             request.getEmail(), 
             request.getPassword()
-        );
-        
-        if (response.isSuccess()) {
-            return ResponseEntity.ok(response);
-        } else {
-            return ResponseEntity.badRequest().body(response);
-        }
+        ));
     }
     
     @PostMapping("/login")
     public ResponseEntity<AuthService.AuthResponse> login(@RequestBody LoginRequest request) {
-        AuthService.AuthResponse response = authService.login(
+        return toResponseEntity(authService.login(
             request.getUsername(), 
             request.getPassword()
-        );
-        
+        ));
+    }
+    
+    // Password hashing pool is full: shed the request instead of queueing it
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<AuthService.AuthResponse> handleHashingOverload() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(new AuthService.AuthResponse(null, null, "Server is busy. Please try again in a moment."));
+    }
+    
+    private ResponseEntity<AuthService.AuthResponse> toResponseEntity(AuthService.AuthResponse response) {
         if (response.isSuccess()) {
             return ResponseEntity.ok(response);
         } else {
@@ -1,8 +1,10 @@
 package com.tossupflash.backend;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
@@ -14,30 +16,57 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    
     @Autowired
     private JwtUtil jwtUtil;
     
+    /**
+     * Hashes the password on the hashing pool, then creates the user with a single insert on the
+     * calling thread. Duplicate usernames and emails are caught by the unique constraints on the
+     * users table.
+     * @throws java.util.concurrent.RejectedExecutionException if the hashing pool is saturated
+     */
     public AuthResponse register(String username, String email, String password) {
-        // Check if user already exists
-        if (userRepository.existsByUsername(username)) {
-            return new AuthResponse(null, null, "Username already exists");
-        }
-        if (userRepository.existsByEmail(email)) {
-            return new AuthResponse(null, null, "Email already exists");
-        }
-        
-        // Create new user
+        String encodedPassword = passwordHashingExecutor.call(() -> passwordEncoder.encode(password));
+        return createUser(username, email, encodedPassword);
+    }
+    
+    private AuthResponse createUser(String username, String email, String encodedPassword) {
         User user = new User();
         user.setUsername(username);
         user.setEmail(email);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(encodedPassword);
         
-        User savedUser = userRepository.save(user);
-        String token = jwtUtil.generateToken(savedUser.getUsername(), savedUser.getId());
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            return new AuthResponse(null, null, duplicateMessage(e));
+        }
         
+        String token = jwtUtil.generateToken(savedUser.getUsername(), savedUser.getId());
         return new AuthResponse(token, savedUser.getUsername(), null);
     }
     
+    private String duplicateMessage(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains(User.USERNAME_CONSTRAINT)) {
+            return "Username already exists";
+        }
+        if (message.contains(User.EMAIL_CONSTRAINT)) {
+            return "Email already exists";
+        }
+        return "Username or email already exists";
+    }
+    
+    /**
+     * Looks the user up on the calling thread and checks the password on the hashing pool.
+     * Hashes made with a lower work factor than the configured one are upgraded in place; the
+     * new hash is computed on the pool and stored from the calling thread.
+     * @throws java.util.concurrent.RejectedExecutionException if the hashing pool is saturated
+     */
     public AuthResponse login(String username, String password) {
         Optional<User> userOpt = userRepository.findByUsername(username);
         
@@ -46,14 +75,31 @@ public class AuthService {
         }
         
         User user = userOpt.get();
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        PasswordCheck check = passwordHashingExecutor.call(() -> checkPassword(user.getPassword(), password));
+        if (!check.matches()) {
             return new AuthResponse(null, null, "Invalid username or password");
         }
+        if (check.upgradedHash() != null) {
+            userRepository.updatePassword(user.getId(), check.upgradedHash());
+        }
         
         String token = jwtUtil.generateToken(user.getUsername(), user.getId());
         return new AuthResponse(token, user.getUsername(), null);
     }
     
+    /**
+     * Runs on the hashing pool; no database access here
+     */
+    private PasswordCheck checkPassword(String storedHash, String password) {
+        if (!passwordEncoder.matches(password, storedHash)) {
+            return new PasswordCheck(false, null);
+        }
+        String upgradedHash = passwordEncoder.upgradeEncoding(storedHash) ? passwordEncoder.encode(password) : null;
+        return new PasswordCheck(true, upgradedHash);
+    }
+    
+    private record PasswordCheck(boolean matches, String upgradedHash) {}
+    
     public static class AuthResponse {
         private String token;
         private String username;
@@ -77,4 +123,4 @@ public class AuthService {
         
         public boolean isSuccess() { return error == null; }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package com.tossupflash.backend;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Picks the shared cache tier from flashcards.cache.remote
+ */
+@Configuration
+public class CacheConfig {
+    
+    @Bean
+    @ConditionalOnProperty(name = "flashcards.cache.remote", havingValue = "local", matchIfMissing = true)
+    public RemoteCache localRemoteCache(FlashcardProperties properties) {
+        return new LocalRemoteCache(properties.getCache().getLocalMaxEntries());
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "flashcards.cache.remote", havingValue = "redis")
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "flashcards.cache.remote", havingValue = "redis")
+    public RemoteCache redisRemoteCache(StringRedisTemplate redis, RedisMessageListenerContainer cacheInvalidationListener) {
+        return new RedisRemoteCache(redis, cacheInvalidationListener);
+    }
+}
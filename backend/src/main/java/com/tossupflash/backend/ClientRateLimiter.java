@@ -0,0 +1,79 @@
+package com.tossupflash.backend;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets for flashcard generation. Each bucket is a single
+ * {@link AtomicLong} holding its "theoretical arrival time" (the GCRA form of a token
+ * bucket), so taking a token is one compare-and-set with no locks. Idle buckets are
+ * evicted once they would have refilled completely.
+ */
+public class ClientRateLimiter {
+    
+    private static final long MAX_TRACKED_CLIENTS = 100_000;
+    
+    private final int burst;
+    private final long emissionIntervalNanos;
+    private final long burstWindowNanos;
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier nanoClock;
+    
+    /**
+     * @param burst Tokens a client can spend at once (bucket capacity)
+     * @param refillPerMinute Tokens added back per minute
+     */
+    public ClientRateLimiter(int burst, int refillPerMinute) {
+        this(burst, refillPerMinute, System::nanoTime);
+    }
+    
+    ClientRateLimiter(int burst, int refillPerMinute, LongSupplier nanoClock) {
+        this.burst = burst;
+        this.nanoClock = nanoClock;
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+        this.burstWindowNanos = emissionIntervalNanos * burst;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_CLIENTS)
+                .expireAfterAccess(Duration.ofNanos(burstWindowNanos))
+                .build();
+    }
+    
+    /**
+     * Takes one token from the client's bucket if one is available
+     * @param clientKey User or IP key of the caller
+     * @return Outcome, with the values for the rate-limit response headers
+     */
+    public Decision tryAcquire(String clientKey) {
+        AtomicLong arrival = buckets.get(clientKey, key -> new AtomicLong(nanoClock.getAsLong()));
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = arrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long backlog = next - now;
+            if (backlog > burstWindowNanos) {
+                // Not enough tokens: report how long until one is available
+                long untilFullNanos = Math.max(0, current - now);
+                return new Decision(false, burst, 0, untilFullNanos, backlog - burstWindowNanos);
+            }
+            if (arrival.compareAndSet(current, next)) {
+                int remaining = (int) ((burstWindowNanos - backlog) / emissionIntervalNanos);
+                return new Decision(true, burst, remaining, backlog, 0);
+            }
+        }
+    }
+    
+    /**
+     * Result of a token request
+     * @param allowed Whether a token was taken
+     * @param limit Bucket capacity
+     * @param remaining Tokens left after this request
+     * @param resetNanos Time until the bucket is full again
+     * @param retryAfterNanos Time until the next token, when not allowed
+     */
+    public record Decision(boolean allowed, int limit, int remaining, long resetNanos, long retryAfterNanos) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.tossupflash.backend;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+/**
+ * The caches used by {@link FlashcardService}, all sharing one {@link RemoteCache}:
+ * raw QBReader responses per query, Wikipedia summaries per phrase and finished decks per topic.
+ */
+@Component
+public class FlashcardCaches {
+    
+    private final TwoTierCache<String> tossups;
+    private final TwoTierCache<String> summaries;
+    private final TwoTierCache<List<Flashcard>> decks;
+    
+    public FlashcardCaches(FlashcardProperties properties, RemoteCache remote, PipelineMetrics metrics) {
+        FlashcardProperties.Cache settings = properties.getCache();
+        ObjectMapper objectMapper = new ObjectMapper();
+        
+        this.tossups = new TwoTierCache<>("tossups", objectMapper.constructType(String.class),
+                settings.getTossupsTtl(), settings, remote, objectMapper, metrics);
+        this.summaries = new TwoTierCache<>("summaries", objectMapper.constructType(String.class),
+                settings.getSummariesTtl(), settings, remote, objectMapper, metrics);
+        this.decks = new TwoTierCache<>("decks",
+                objectMapper.getTypeFactory().constructType(new TypeReference<List<Flashcard>>() { }),
+                settings.getDecksTtl(), settings, remote, objectMapper, metrics);
+    }
+    
+    /**
+     * @return Raw QBReader query responses, keyed by search type and query
+     */
+    public TwoTierCache<String> tossups() {
+        return tossups;
+    }
+    
+    /**
+     * @return Trimmed Wikipedia summaries keyed by phrase; "" records a phrase with no article
+     */
+    public TwoTierCache<String> summaries() {
+        return summaries;
+    }
+    
+    /**
+     * @return Generated decks keyed by normalized topic
+     */
+    public TwoTierCache<List<Flashcard>> decks() {
+        return decks;
+    }
+}
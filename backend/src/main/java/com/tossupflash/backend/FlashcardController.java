@@ -1,6 +1,9 @@
 package com.tossupflash.backend;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
@@ -9,14 +12,31 @@ import java.util.List;
 public class FlashcardController {
     
     private final FlashcardService flashcardService;
+    private final FlashcardProperties properties;
+    private final TopicSuggestionIndex topicSuggestionIndex;
     
     @Autowired
-    public FlashcardController(FlashcardService flashcardService) {
+    public FlashcardController(FlashcardService flashcardService, FlashcardProperties properties,
+                               TopicSuggestionIndex topicSuggestionIndex) {
         this.flashcardService = flashcardService;
+        this.properties = properties;
+        this.topicSuggestionIndex = topicSuggestionIndex;
     }
     
     @GetMapping("/flashcards")
-    public List<Flashcard> getFlashcards(@RequestParam String topic) {
-        return flashcardService.generateFlashcards(topic);
+    public ResponseEntity<List<Flashcard>> getFlashcards(@RequestParam String topic, HttpServletRequest request) {
+        List<Flashcard> flashcards = flashcardService.generateFlashcards(topic);
+        if (!flashcards.isEmpty()) {
+            // Topics that work are offered to the next user who starts typing them
+            topicSuggestionIndex.recordGenerated(topic, GenerationAdmissionInterceptor.clientKey(request));
+        }
+        
+        // Non-empty decks are cached server-side, so repeat requests within the window get the
+        // same deck anyway; let the browser reuse it. Empty results may be transient failures.
+        FlashcardProperties.Cache cache = properties.getCache();
+        if (flashcards.isEmpty() || !cache.isEnabled()) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(flashcards);
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.maxAge(cache.getDeckMaxAge())).body(flashcards);
     }
 }
@@ -0,0 +1,138 @@
+package com.tossupflash.backend;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * File formats for exporting a saved collection, written one row at a time so an export never
+ * holds more than the current card in memory.
+ */
+public enum FlashcardExportFormat {
+    
+    /** RFC 4180 CSV with a header row; fields are quoted only when they need it */
+    CSV("text/csv", "csv") {
+        @Override
+        void writeHeader(Writer out) throws IOException {
+            out.write("front,back,topic,saved_at\r\n");
+        }
+        
+        @Override
+        void writeRow(Writer out, SavedFlashcardRepository.ExportRow row) throws IOException {
+            out.write(csvField(row.front()));
+            out.write(',');
+            out.write(csvField(row.back()));
+            out.write(',');
+            out.write(csvField(row.topic()));
+            out.write(',');
+            out.write(String.valueOf(row.savedAt()));
+            out.write("\r\n");
+        }
+    },
+    
+    /** Tab-separated with a header row; tabs, newlines and backslashes are backslash-escaped */
+    TSV("text/tab-separated-values", "tsv") {
+        @Override
+        void writeHeader(Writer out) throws IOException {
+            out.write("front\tback\ttopic\tsaved_at\n");
+        }
+        
+        @Override
+        void writeRow(Writer out, SavedFlashcardRepository.ExportRow row) throws IOException {
+            out.write(tsvField(row.front()));
+            out.write('\t');
+            out.write(tsvField(row.back()));
+            out.write('\t');
+            out.write(tsvField(row.topic()));
+            out.write('\t');
+            out.write(String.valueOf(row.savedAt()));
+            out.write('\n');
+        }
+    },
+    
+    /**
+     * Anki "Import File" text: file headers declare the separator and HTML fields, and the
+     * topic becomes the note's tag
+     */
+    ANKI("text/plain", "txt") {
+        @Override
+        void writeHeader(Writer out) throws IOException {
+            out.write("#separator:tab\n#html:true\n#tags column:3\n");
+        }
+        
+        @Override
+        void writeRow(Writer out, SavedFlashcardRepository.ExportRow row) throws IOException {
+            out.write(ankiField(row.front()));
+            out.write('\t');
+            out.write(ankiField(row.back()));
+            out.write('\t');
+            out.write(ankiTag(row.topic()));
+            out.write('\n');
+        }
+    };
+    
+    private final String contentType;
+    private final String extension;
+    
+    FlashcardExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+    
+    abstract void writeHeader(Writer out) throws IOException;
+    
+    abstract void writeRow(Writer out, SavedFlashcardRepository.ExportRow row) throws IOException;
+    
+    public String contentType() {
+        return contentType;
+    }
+    
+    public String extension() {
+        return extension;
+    }
+    
+    /**
+     * @param name Format name from the request, case-insensitive
+     * @return The format, or empty if there is no such format
+     */
+    public static Optional<FlashcardExportFormat> parse(String name) {
+        for (FlashcardExportFormat format : values()) {
+            if (format.name().equals(name.toUpperCase(Locale.ROOT))) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+    
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+    
+    static String tsvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+    
+    static String ankiField(String value) {
+        if (value == null) {
+            return "";
+        }
+        // Fields are imported as HTML, so text is escaped and line breaks become <br>
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\r\n", "<br>").replace("\n", "<br>").replace("\r", "<br>").replace('\t', ' ');
+    }
+    
+    static String ankiTag(String topic) {
+        // Anki separates tags with spaces, so a multi-word topic stays one tag
+        return topic == null ? "" : topic.trim().replaceAll("\\s+", "_");
+    }
+}
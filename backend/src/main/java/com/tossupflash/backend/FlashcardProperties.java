@@ -0,0 +1,655 @@
+package com.tossupflash.backend;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import java.time.Duration;
+
+/**
+ * Settings for the flashcard generation pipeline ({@code flashcards.*} in application.properties)
+ */
+@ConfigurationProperties(prefix = "flashcards")
+public class FlashcardProperties {
+    
+    private final Generation generation = new Generation();
+    private final QBReader qbreader = new QBReader();
+    private final Wikipedia wikipedia = new Wikipedia();
+    private final Upstream upstream = new Upstream();
+    private final Admission admission = new Admission();
+    private final Cache cache = new Cache();
+    private final Suggest suggest = new Suggest();
+    private final Saves saves = new Saves();
+    private final Jfr jfr = new Jfr();
+    private final Sync sync = new Sync();
+    
+    public Generation getGeneration() {
+        return generation;
+    }
+    
+    public QBReader getQbreader() {
+        return qbreader;
+    }
+    
+    public Wikipedia getWikipedia() {
+        return wikipedia;
+    }
+    
+    public Upstream getUpstream() {
+        return upstream;
+    }
+    
+    public Admission getAdmission() {
+        return admission;
+    }
+    
+    public Cache getCache() {
+        return cache;
+    }
+    
+    public Suggest getSuggest() {
+        return suggest;
+    }
+    
+    public Saves getSaves() {
+        return saves;
+    }
+    
+    public Jfr getJfr() {
+        return jfr;
+    }
+    
+    public Sync getSync() {
+        return sync;
+    }
+    
+    public static class Generation {
+        /**
+         * Cards in a full deck; lookups stop once this many phrases have a summary
+         */
+        private int targetCards = 10;
+        
+        /**
+         * Ranked phrases kept as lookup candidates, bounding the Wikipedia calls per deck
+         */
+        private int maxCandidates = 30;
+        
+        /**
+         * Tossups requested from QBReader per topic. More tossups give steadier phrase counts;
+         * sets of 32 or more are analysed in parallel.
+         */
+        private int maxTossups = 8;
+        
+        public int getTargetCards() {
+            return targetCards;
+        }
+        
+        public void setTargetCards(int targetCards) {
+            this.targetCards = targetCards;
+        }
+        
+        public int getMaxCandidates() {
+            return maxCandidates;
+        }
+        
+        public void setMaxCandidates(int maxCandidates) {
+            this.maxCandidates = maxCandidates;
+        }
+        
+        public int getMaxTossups() {
+            return maxTossups;
+        }
+        
+        public void setMaxTossups(int maxTossups) {
+            this.maxTossups = maxTossups;
+        }
+    }
+    
+    public static class QBReader {
+        /**
+         * Base URL of the QBReader API. Point it at a local stub for load testing.
+         */
+        private String baseUrl = "https://www.qbreader.org";
+        
+        /**
+         * Deadline shared by the per-word fallback queries sent when the exact answer search
+         * finds nothing
+         */
+        private long broadSearchTimeoutMs = 2000;
+        
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+        
+        public void setBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+        
+        public long getBroadSearchTimeoutMs() {
+            return broadSearchTimeoutMs;
+        }
+        
+        public void setBroadSearchTimeoutMs(long broadSearchTimeoutMs) {
+            this.broadSearchTimeoutMs = broadSearchTimeoutMs;
+        }
+    }
+    
+    public static class Wikipedia {
+        static final int VIRTUAL_THREAD_CONCURRENCY = 4;
+        
+        /**
+         * Base URL of the Wikipedia REST API host
+         */
+        private String baseUrl = "https://en.wikipedia.org";
+        
+        /**
+         * Minimum time between the starts of consecutive summary requests, to be respectful to Wikipedia
+         */
+        private long requestDelayMs = 100;
+        
+        /**
+         * Summary requests a single generation may have in flight at once. 0 keeps the
+         * one-at-a-time behaviour on platform threads and allows
+         * {@value #VIRTUAL_THREAD_CONCURRENCY} with spring.threads.virtual.enabled.
+         */
+        private int maxConcurrency = 0;
+        
+        /**
+         * Title index built by TitleIndexBuilder; when set, phrases are resolved to article titles
+         * locally and phrases without an article are never requested. Empty disables it.
+         */
+        private String titleIndex = "";
+        
+        /**
+         * Abstracts store built by AbstractStoreBuilder; when set, summaries come from it instead
+         * of the Wikipedia API and generation makes no Wikipedia calls. Empty uses the API.
+         */
+        private String abstractsStore = "";
+        
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+        
+        public void setBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+        
+        public long getRequestDelayMs() {
+            return requestDelayMs;
+        }
+        
+        public void setRequestDelayMs(long requestDelayMs) {
+            this.requestDelayMs = requestDelayMs;
+        }
+        
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+        
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+        
+        public String getTitleIndex() {
+            return titleIndex;
+        }
+        
+        public void setTitleIndex(String titleIndex) {
+            this.titleIndex = titleIndex;
+        }
+        
+        public String getAbstractsStore() {
+            return abstractsStore;
+        }
+        
+        public void setAbstractsStore(String abstractsStore) {
+            this.abstractsStore = abstractsStore;
+        }
+    }
+    
+    public static class Upstream {
+        /**
+         * Size of the platform-thread pool for upstream calls (ignored with virtual threads)
+         */
+        private int platformThreads = 64;
+        
+        /**
+         * Queued upstream calls allowed before new ones are rejected (ignored with virtual threads)
+         */
+        private int queueCapacity = 1000;
+        
+        public int getPlatformThreads() {
+            return platformThreads;
+        }
+        
+        public void setPlatformThreads(int platformThreads) {
+            this.platformThreads = platformThreads;
+        }
+        
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+        
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+    
+    public static class Admission {
+        /**
+         * Generations allowed to run at once across all clients (0 disables the limit)
+         */
+        private int maxConcurrent = 16;
+        
+        /**
+         * Requests allowed to wait for a free generation slot; beyond this they are shed at once
+         */
+        private int maxQueued = 32;
+        
+        /**
+         * How long a queued request waits for a slot before it is shed
+         */
+        private long maxWaitMs = 250;
+        
+        /**
+         * Generations a single client can make back to back
+         */
+        private int burst = 5;
+        
+        /**
+         * Generations a single client earns back per minute (0 disables per-client limits)
+         */
+        private int refillPerMinute = 10;
+        
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+        
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+        
+        public int getMaxQueued() {
+            return maxQueued;
+        }
+        
+        public void setMaxQueued(int maxQueued) {
+            this.maxQueued = maxQueued;
+        }
+        
+        public long getMaxWaitMs() {
+            return maxWaitMs;
+        }
+        
+        public void setMaxWaitMs(long maxWaitMs) {
+            this.maxWaitMs = maxWaitMs;
+        }
+        
+        public int getBurst() {
+            return burst;
+        }
+        
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+        
+        public int getRefillPerMinute() {
+            return refillPerMinute;
+        }
+        
+        public void setRefillPerMinute(int refillPerMinute) {
+            this.refillPerMinute = refillPerMinute;
+        }
+    }
+    
+    public static class Cache {
+        /**
+         * Turns caching of tossups, summaries and decks on or off
+         */
+        private boolean enabled = true;
+        
+        /**
+         * Shared tier: "local" (in-process stand-in) or "redis" (any Redis-protocol server,
+         * configured with spring.data.redis.*)
+         */
+        private String remote = "local";
+        
+        /**
+         * Entries kept in each in-process near tier
+         */
+        private long nearMaxEntries = 10_000;
+        
+        /**
+         * How long a near copy is trusted before the shared tier is consulted again
+         */
+        private Duration nearTtl = Duration.ofMinutes(5);
+        
+        /**
+         * Entries kept by the local stand-in for the shared tier
+         */
+        private long localMaxEntries = 50_000;
+        
+        /**
+         * Lifetime of QBReader responses; short, since results are randomized for variety
+         */
+        private Duration tossupsTtl = Duration.ofMinutes(10);
+        
+        /**
+         * Lifetime of Wikipedia summaries, including "no article" results
+         */
+        private Duration summariesTtl = Duration.ofHours(24);
+        
+        /**
+         * Lifetime of generated decks per topic
+         */
+        private Duration decksTtl = Duration.ofMinutes(10);
+        
+        /**
+         * Cache-Control max-age sent with non-empty decks
+         */
+        private Duration deckMaxAge = Duration.ofMinutes(5);
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public String getRemote() {
+            return remote;
+        }
+        
+        public void setRemote(String remote) {
+            this.remote = remote;
+        }
+        
+        public long getNearMaxEntries() {
+            return nearMaxEntries;
+        }
+        
+        public void setNearMaxEntries(long nearMaxEntries) {
+            this.nearMaxEntries = nearMaxEntries;
+        }
+        
+        public Duration getNearTtl() {
+            return nearTtl;
+        }
+        
+        public void setNearTtl(Duration nearTtl) {
+            this.nearTtl = nearTtl;
+        }
+        
+        public long getLocalMaxEntries() {
+            return localMaxEntries;
+        }
+        
+        public void setLocalMaxEntries(long localMaxEntries) {
+            this.localMaxEntries = localMaxEntries;
+        }
+        
+        public Duration getTossupsTtl() {
+            return tossupsTtl;
+        }
+        
+        public void setTossupsTtl(Duration tossupsTtl) {
+            this.tossupsTtl = tossupsTtl;
+        }
+        
+        public Duration getSummariesTtl() {
+            return summariesTtl;
+        }
+        
+        public void setSummariesTtl(Duration summariesTtl) {
+            this.summariesTtl = summariesTtl;
+        }
+        
+        public Duration getDecksTtl() {
+            return decksTtl;
+        }
+        
+        public void setDecksTtl(Duration decksTtl) {
+            this.decksTtl = decksTtl;
+        }
+        
+        public Duration getDeckMaxAge() {
+            return deckMaxAge;
+        }
+        
+        public void setDeckMaxAge(Duration deckMaxAge) {
+            this.deckMaxAge = deckMaxAge;
+        }
+    }
+    
+    public static class Suggest {
+        /**
+         * Answer lines to offer as topics, one per line (QBReader answer lines may keep their
+         * markup and [accept ...] notes). Optional; may be gzipped.
+         */
+        private String answersFile = "";
+        
+        /**
+         * Distinct generated topics remembered for suggestions; the least used make room for new ones
+         */
+        private int maxHistory = 10_000;
+        
+        /**
+         * How long a generated topic is remembered after it last produced a deck
+         */
+        private Duration historyRetention = Duration.ofDays(7);
+        
+        /**
+         * Distinct callers (signed-in users, or addresses when anonymous) that must produce a deck
+         * for a topic before it is suggested to others
+         */
+        private int minHistoryClients = 3;
+        
+        /**
+         * How often the prefix index is rebuilt from the answers file and topic history
+         */
+        private Duration rebuildInterval = Duration.ofMinutes(5);
+        
+        public String getAnswersFile() {
+            return answersFile;
+        }
+        
+        public void setAnswersFile(String answersFile) {
+            this.answersFile = answersFile;
+        }
+        
+        public int getMaxHistory() {
+            return maxHistory;
+        }
+        
+        public void setMaxHistory(int maxHistory) {
+            this.maxHistory = maxHistory;
+        }
+        
+        public Duration getHistoryRetention() {
+            return historyRetention;
+        }
+        
+        public void setHistoryRetention(Duration historyRetention) {
+            this.historyRetention = historyRetention;
+        }
+        
+        public int getMinHistoryClients() {
+            return minHistoryClients;
+        }
+        
+        public void setMinHistoryClients(int minHistoryClients) {
+            this.minHistoryClients = minHistoryClients;
+        }
+        
+        public Duration getRebuildInterval() {
+            return rebuildInterval;
+        }
+        
+        public void setRebuildInterval(Duration rebuildInterval) {
+            this.rebuildInterval = rebuildInterval;
+        }
+    }
+    
+    public static class Saves {
+        /**
+         * Acknowledge saves once they are in the local journal and write them to the database
+         * in batches, instead of one transaction per save
+         */
+        private boolean writeBehind = false;
+        
+        /**
+         * Journal file for saves not yet in the database; replayed on startup
+         */
+        private String journal = "data/saves.journal";
+        
+        /**
+         * Most saves written to the database in one transaction
+         */
+        private int maxBatch = 256;
+        
+        /**
+         * Saves that may wait for the journal before new ones fall back to a direct insert
+         */
+        private int queueCapacity = 10_000;
+        
+        public boolean isWriteBehind() {
+            return writeBehind;
+        }
+        
+        public void setWriteBehind(boolean writeBehind) {
+            this.writeBehind = writeBehind;
+        }
+        
+        public String getJournal() {
+            return journal;
+        }
+        
+        public void setJournal(String journal) {
+            this.journal = journal;
+        }
+        
+        public int getMaxBatch() {
+            return maxBatch;
+        }
+        
+        public void setMaxBatch(int maxBatch) {
+            this.maxBatch = maxBatch;
+        }
+        
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+        
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+    
+    public static class Jfr {
+        /**
+         * Keep a continuous flight recording of the pipeline events (jfr/flashcards.jfc on top of
+         * the JDK's low-overhead "default" settings)
+         */
+        private boolean enabled = false;
+        
+        /**
+         * How far back the continuous recording reaches
+         */
+        private Duration maxAge = Duration.ofHours(6);
+        
+        /**
+         * Disk space the continuous recording may use
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(256);
+        
+        /**
+         * Where the recording is written on shutdown (and by jcmd JFR.dump name=flashcards)
+         */
+        private String destination = "data/flashcards.jfr";
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+        
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+        
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+        
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+        
+        public String getDestination() {
+            return destination;
+        }
+        
+        public void setDestination(String destination) {
+            this.destination = destination;
+        }
+    }
+    
+    public static class Sync {
+        /**
+         * Most changes served from the change log; clients further behind reload the whole list
+         */
+        private int maxChanges = 500;
+        
+        /**
+         * How long change log entries are kept
+         */
+        private Duration retention = Duration.ofDays(7);
+        
+        /**
+         * How long a change stream stays open before the client has to reconnect
+         */
+        private Duration streamTimeout = Duration.ofMinutes(30);
+        
+        /**
+         * Open change streams per user (tabs and devices); the oldest is closed beyond this
+         */
+        private int maxStreamsPerUser = 8;
+        
+        public int getMaxChanges() {
+            return maxChanges;
+        }
+        
+        public void setMaxChanges(int maxChanges) {
+            this.maxChanges = maxChanges;
+        }
+        
+        public Duration getRetention() {
+            return retention;
+        }
+        
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+        
+        public Duration getStreamTimeout() {
+            return streamTimeout;
+        }
+        
+        public void setStreamTimeout(Duration streamTimeout) {
+            this.streamTimeout = streamTimeout;
+        }
+        
+        public int getMaxStreamsPerUser() {
+            return maxStreamsPerUser;
+        }
+        
+        public void setMaxStreamsPerUser(int maxStreamsPerUser) {
+            this.maxStreamsPerUser = maxStreamsPerUser;
+        }
+    }
+}
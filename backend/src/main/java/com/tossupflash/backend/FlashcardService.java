@@ -1,5 +1,10 @@
 package com.tossupflash.backend;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -8,18 +13,66 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class FlashcardService {
     
+    private static final Logger log = LoggerFactory.getLogger(FlashcardService.class);
+    
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final PipelineMetrics metrics;
+    private final FlashcardProperties properties;
+    private final Executor upstreamExecutor;
+    private final FlashcardCaches caches;
+    private final TitleIndex titleIndex;
+    private final SummaryProvider summaryProvider;
+    private final int wikipediaConcurrency;
+    private final PhraseDeduplicator phraseDeduplicator = new PhraseDeduplicator();
+    
+    private static final double INITIAL_HIT_RATE = 0.6;
+    private static final double HIT_RATE_SMOOTHING = 0.2;
+    private static final double MIN_HIT_RATE = 0.1;
+    private static final int HIT_RATE_PRIOR_WEIGHT = 4;
+    private static final int BROAD_SEARCH_TOSSUPS = 5;
+    private static final int PARALLEL_QUESTION_THRESHOLD = 32;
     
-    public FlashcardService() {
-        this.restTemplate = new RestTemplate();
+    // Share of Wikipedia lookups that yield a summary, smoothed across generations (EWMA);
+    // sizes the lookup window so a deck fills up without wasted calls
+    private volatile double observedHitRate = INITIAL_HIT_RATE;
+    
+    public FlashcardService(RestTemplate restTemplate, PipelineMetrics metrics, FlashcardProperties properties,
+                            @Qualifier(UpstreamClientConfig.UPSTREAM_EXECUTOR) Executor upstreamExecutor,
+                            FlashcardCaches caches, TitleIndex titleIndex,
+                            SummaryProvider summaryProvider, Environment environment) {
+        this.restTemplate = restTemplate;
         this.objectMapper = new ObjectMapper();
+        this.metrics = metrics;
+        this.properties = properties;
+        this.upstreamExecutor = upstreamExecutor;
+        this.caches = caches;
+        this.titleIndex = titleIndex;
+        this.summaryProvider = summaryProvider;
+        int maxConcurrency = properties.getWikipedia().getMaxConcurrency();
+        if (maxConcurrency <= 0) {
+            // Parallel summary requests are part of the opt-in virtual-thread mode only
+            maxConcurrency = Threading.VIRTUAL.isActive(environment)
+                    ? FlashcardProperties.Wikipedia.VIRTUAL_THREAD_CONCURRENCY : 1;
+        }
+        this.wikipediaConcurrency = maxConcurrency;
+        metrics.bindWikipediaHitRate(() -> observedHitRate);
     }
     
     /**
@@ -30,107 +83,138 @@ public class FlashcardService {
      * @return List of flashcards with educational content
      */
     public List<Flashcard> generateFlashcards(String topic) {
-        System.out.println("=== STARTING FLASHCARD GENERATION FOR TOPIC: " + topic + " ===");
+        String deckKey = topic.trim().toLowerCase(Locale.ROOT);
+        
+        // Empty decks are not cached: they usually mean an upstream call failed
+        List<Flashcard> deck = caches.decks().get(deckKey, () -> {
+            List<Flashcard> generated = buildFlashcards(topic);
+            return generated.isEmpty() ? null : generated;
+        });
+        return deck != null ? new ArrayList<>(deck) : new ArrayList<>();
+    }
+    
+    private List<Flashcard> buildFlashcards(String topic) {
+        log.atInfo().setMessage("Starting flashcard generation").addKeyValue("topic", topic).log();
         
         try {
             // STEP 1: Fetch tossup questions from QBReader API
-            System.out.println("STEP 1: Fetching tossup questions from QBReader API...");
-            List<JsonNode> tossups = fetchTossups(topic);
+            List<JsonNode> tossups;
+            try (PipelineMetrics.StageTimer stage = metrics.startStage(PipelineMetrics.Stage.QBREADER_FETCH)) {
+                tossups = fetchTossups(topic);
+            }
             
             if (tossups.isEmpty()) {
-                System.out.println("❌ No tossup questions found for topic: " + topic);
+                log.atInfo().setMessage("No tossup questions found").addKeyValue("topic", topic).log();
                 return new ArrayList<>();
             }
             
             // STEP 2: Extract all question strings for analysis
-            System.out.println("STEP 2: Extracting question strings from " + tossups.size() + " tossups...");
             List<String> questionStrings = new ArrayList<>();
-            
-            for (JsonNode tossup : tossups) {
-                String question = tossup.get("question").asText();
-                questionStrings.add(question);
+            try (PipelineMetrics.StageTimer stage = metrics.startStage(PipelineMetrics.Stage.EXTRACTION)) {
+                for (JsonNode tossup : tossups) {
+                    String question = tossup.get("question").asText();
+                    questionStrings.add(question);
+                }
             }
             
-            // STEP 3: Extract top multi-word phrases using frequency analysis
-            System.out.println("STEP 3: Analyzing phrases using TF-IDF and frequency analysis...");
-            List<String> topPhrases = extractTopPhrasesFromTossups(questionStrings);
+            // STEP 3: Rank candidate multi-word phrases using frequency analysis
+            FlashcardProperties.Generation generation = properties.getGeneration();
+            List<String> candidates;
+            try (PipelineMetrics.StageTimer stage = metrics.startStage(PipelineMetrics.Stage.PHRASE_SCORING)) {
+                candidates = rankCandidatePhrases(questionStrings, generation.getMaxCandidates());
+            }
             
-            if (topPhrases.isEmpty()) {
-                System.out.println("❌ No meaningful phrases extracted from tossup questions");
+            if (candidates.isEmpty()) {
+                log.atInfo().setMessage("No meaningful phrases extracted")
+                        .addKeyValue("topic", topic)
+                        .addKeyValue("tossups", tossups.size())
+                        .log();
                 return new ArrayList<>();
             }
             
-            System.out.println("✓ Top phrases extracted (" + topPhrases.size() + "): " + topPhrases);
+            log.debug("Candidate phrases ranked: {}", candidates);
             
-            // STEP 4: Get Wikipedia summaries for all phrases (batch processing)
-            System.out.println("STEP 4: Fetching Wikipedia summaries for key phrases...");
-            Map<String, String> wikipediaSummaries = getWikipediaSummariesBatch(topPhrases);
+            // STEP 4: Get Wikipedia summaries, walking down the ranking until the deck is full
+            LookupResult lookup;
+            try (PipelineMetrics.StageTimer stage = metrics.startStage(PipelineMetrics.Stage.WIKIPEDIA_BATCH)) {
+                lookup = lookupSummariesUntil(candidates, generation.getTargetCards());
+            }
+            Map<String, String> wikipediaSummaries = lookup.summaries();
             
             // STEP 5: Create flashcards combining context + Wikipedia summaries
-            System.out.println("STEP 5: Creating flashcards with context + Wikipedia summaries...");
             List<Flashcard> flashcards = new ArrayList<>();
-            
-            for (String phrase : topPhrases) {
-                String wikipediaSummary = wikipediaSummaries.get(phrase);
-                
-                if (wikipediaSummary != null && !wikipediaSummary.trim().isEmpty()) {
-                    // Find the best context sentence for this phrase from all questions
-                    String contextSentence = findBestContextForPhrase(phrase, questionStrings);
-                    
-                    // Combine context + Wikipedia summary for the back of the flashcard
-                    String back = "Context: " + contextSentence + "\n\nWikipedia: " + wikipediaSummary;
+            try (PipelineMetrics.StageTimer stage = metrics.startStage(PipelineMetrics.Stage.CARD_ASSEMBLY)) {
+                // Summaries are in ranking order and only contain phrases that have one
+                for (String phrase : wikipediaSummaries.keySet()) {
+                    String wikipediaSummary = wikipediaSummaries.get(phrase);
                     
-                    // Create flashcard with phrase as front, context + summary as back
-                    Flashcard flashcard = new Flashcard(phrase, back);
-                    flashcards.add(flashcard);
+                    if (wikipediaSummary != null && !wikipediaSummary.trim().isEmpty()) {
+                        // Find the best context sentence for this phrase from all questions
+                        String contextSentence = findBestContextForPhrase(phrase, questionStrings);
+                        
+                        // Combine context + Wikipedia summary for the back of the flashcard
+                        String back = "Context: " + contextSentence + "\n\nWikipedia: " + wikipediaSummary;
+                        
+                        // Create flashcard with phrase as front, context + summary as back
+                        Flashcard flashcard = new Flashcard(phrase, back);
+                        flashcards.add(flashcard);
+                        
+                        log.debug("Created flashcard #{}: {}", flashcards.size(), phrase);
+                    } else {
+                        log.debug("Skipping phrase without Wikipedia summary: {}", phrase);
+                    }
                     
-                    System.out.println("✓ Created flashcard #" + flashcards.size() + ": " + phrase);
-                } else {
-                    System.out.println("⚠️  Skipping phrase (no Wikipedia summary): " + phrase);
-                }
-                
-                // Limit to prevent too many cards
-                if (flashcards.size() >= 10) {
-                    System.out.println("📝 Reached maximum of 10 flashcards");
-                    break;
+                    // Limit to prevent too many cards
+                    if (flashcards.size() >= generation.getTargetCards()) {
+                        break;
+                    }
                 }
             }
+            metrics.recordYield(lookup.lookups(), flashcards.size());
             
-            System.out.println("=== FLASHCARD GENERATION COMPLETE ===");
-            System.out.println("📊 Final Results:");
-            System.out.println("   • Topic: " + topic);
-            System.out.println("   • Tossups processed: " + tossups.size());
-            System.out.println("   • Phrases analyzed: " + topPhrases.size());
-            System.out.println("   • Wikipedia lookups: " + wikipediaSummaries.size());
-            System.out.println("   • Flashcards created: " + flashcards.size());
+            log.atInfo().setMessage("Flashcard generation complete")
+                    .addKeyValue("topic", topic)
+                    .addKeyValue("tossups", tossups.size())
+                    .addKeyValue("candidates", candidates.size())
+                    .addKeyValue("lookups", lookup.lookups())
+                    .addKeyValue("flashcards", flashcards.size())
+                    .log();
             
             return flashcards;
             
+        } catch (InterruptedException e) {
+            // Keep the flag for the caller; an empty deck is not cached
+            Thread.currentThread().interrupt();
+            log.atInfo().setMessage("Flashcard generation interrupted").addKeyValue("topic", topic).log();
+            return new ArrayList<>();
         } catch (Exception e) {
-            System.out.println("❌ ERROR in flashcard generation: " + e.getMessage());
-            e.printStackTrace();
+            log.atError().setMessage("Flashcard generation failed")
+                    .addKeyValue("topic", topic)
+                    .setCause(e)
+                    .log();
             return new ArrayList<>();
         }
     }
     
     private List<JsonNode> fetchTossups(String topic) throws Exception {
+        int maxTossups = properties.getGeneration().getMaxTossups();
+        
         // URL encode the topic (e.g., "Berlin Wall" becomes "Berlin%20Wall")
         String encodedTopic = URLEncoder.encode(topic, StandardCharsets.UTF_8);
         
         // Use the proper QB Reader search API with documented parameters
-        String url = "https://www.qbreader.org/api/query?" +
+        String url = properties.getQbreader().getBaseUrl() + "/api/query?" +
                 "queryString=" + encodedTopic +
                 "&questionType=tossup" +
                 "&searchType=answer" +  // Search ONLY answers - topic should be the answer!
                 "&randomize=true" +     // Randomize results for variety
-                "&maxReturnLength=8";   // Get more results for better variety
-        
-        System.out.println("Searching QB Reader API for topic: " + topic);
-        System.out.println("API URL: " + url);
+                "&maxReturnLength=" + maxTossups;
         
-        String response = restTemplate.getForObject(url, String.class);
+        log.debug("Searching QB Reader API: {}", url);
         
-        System.out.println("QB Reader API Response received");
+        // The page size is part of the key: a smaller cached page must not serve a larger setting
+        String answerKey = "answer:" + maxTossups + ":" + topic.trim().toLowerCase(Locale.ROOT);
+        String response = caches.tossups().get(answerKey, () -> restTemplate.getForObject(url, String.class));
         
         JsonNode jsonNode = objectMapper.readTree(response);
         JsonNode tossupsObject = jsonNode.get("tossups");
@@ -138,60 +222,112 @@ public class FlashcardService {
         
         List<JsonNode> tossups = new ArrayList<>();
         if (tossupsArray != null && tossupsArray.isArray()) {
-            // Extract up to 8 tossup questions
+            // Extract up to maxTossups tossup questions
             int count = 0;
             for (JsonNode tossup : tossupsArray) {
-                if (count >= 8) break;
+                if (count >= maxTossups) break;
                 tossups.add(tossup);
                 
                 // Log the question string for debugging
-                String questionText = tossup.get("question").asText();
-                System.out.println("Tossup " + (count + 1) + ": " + 
-                    questionText.substring(0, Math.min(100, questionText.length())) + "...");
+                if (log.isTraceEnabled()) {
+                    String questionText = tossup.get("question").asText();
+                    log.trace("Tossup {}: {}...", count + 1, 
+                        questionText.substring(0, Math.min(100, questionText.length())));
+                }
                 count++;
             }
         }
         
         // If no results found with exact search, try a broader search
         if (tossups.isEmpty()) {
-            System.out.println("No exact matches found, trying broader search...");
-            
-            // Try searching with individual words for complex topics
-            String[] words = topic.split("\\s+");
+            log.debug("No exact matches found for '{}', trying broader search", topic);
+            tossups = broadSearch(topic);
+        }
+        
+        log.atDebug().setMessage("Tossups fetched")
+                .addKeyValue("topic", topic)
+                .addKeyValue("tossups", tossups.size())
+                .log();
+        return tossups;
+    }
+    
+    /**
+     * Broader fallback: one query per significant word of the topic, all sent at once under a
+     * shared deadline. Results are merged by tossup ID as they arrive, and queries still running
+     * once enough tossups are in (or the deadline passes) are cancelled.
+     * @param topic Topic whose exact answer search found nothing
+     * @return Up to {@value #BROAD_SEARCH_TOSSUPS} distinct tossups
+     */
+    List<JsonNode> broadSearch(String topic) throws InterruptedException {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : topic.split("\\s+")) {
+            if (word.length() > 3) { // Skip short words
+                words.add(word.toLowerCase(Locale.ROOT));
+            }
+        }
+        
+        BlockingQueue<FutureTask<String>> completed = new LinkedBlockingQueue<>();
+        Map<FutureTask<String>, String> queries = new LinkedHashMap<>();
+        Map<String, JsonNode> merged = new LinkedHashMap<>();
+        long deadline = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(properties.getQbreader().getBroadSearchTimeoutMs());
+        int answered = 0;
+        try {
+            // Submitted inside the try, so a rejected submission still cancels those already sent
             for (String word : words) {
-                if (word.length() > 3) { // Skip short words
-                    String broadUrl = "https://www.qbreader.org/api/query?" +
-                            "queryString=" + URLEncoder.encode(word, StandardCharsets.UTF_8) +
-                            "&questionType=tossup" +
-                            "&searchType=all" +
-                            "&randomize=true" +
-                            "&maxReturnLength=3";
+                String broadUrl = properties.getQbreader().getBaseUrl() + "/api/query?" +
+                        "queryString=" + URLEncoder.encode(word, StandardCharsets.UTF_8) +
+                        "&questionType=tossup" +
+                        "&searchType=all" +
+                        "&randomize=true" +
+                        "&maxReturnLength=3";
+                FutureTask<String> query = new FutureTask<>(() -> caches.tossups().get("all:" + word,
+                        () -> restTemplate.getForObject(broadUrl, String.class))) {
+                    @Override
+                    protected void done() {
+                        completed.add(this);
+                    }
+                };
+                queries.put(query, word);
+                upstreamExecutor.execute(query);
+            }
+            
+            while (answered < queries.size() && merged.size() < BROAD_SEARCH_TOSSUPS) {
+                FutureTask<String> query = completed.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (query == null) {
+                    log.debug("Broad search for '{}' hit its deadline with {} of {} queries answered",
+                            topic, answered, queries.size());
+                    break;
+                }
+                answered++;
+                try {
+                    JsonNode broadJson = objectMapper.readTree(query.get());
+                    JsonNode broadTossups = broadJson.get("tossups");
+                    JsonNode broadArray = broadTossups != null ? broadTossups.get("questionArray") : null;
                     
-                    try {
-                        String broadResponse = restTemplate.getForObject(broadUrl, String.class);
-                        JsonNode broadJson = objectMapper.readTree(broadResponse);
-                        JsonNode broadTossups = broadJson.get("tossups");
-                        JsonNode broadArray = broadTossups != null ? broadTossups.get("questionArray") : null;
-                        
-                        if (broadArray != null && broadArray.isArray()) {
-                            for (JsonNode tossup : broadArray) {
-                                if (tossups.size() >= 5) break;
-                                tossups.add(tossup);
-                            }
+                    if (broadArray != null && broadArray.isArray()) {
+                        for (JsonNode tossup : broadArray) {
+                            if (merged.size() >= BROAD_SEARCH_TOSSUPS) break;
+                            merged.putIfAbsent(tossupId(tossup), tossup);
                         }
-                        if (tossups.size() >= 5) break;
-                    } catch (Exception e) {
-                        System.out.println("Error in broad search for word: " + word);
                     }
+                } catch (ExecutionException e) {
+                    log.debug("Broad search failed for word '{}': {}", queries.get(query), e.getCause().getMessage());
+                } catch (Exception e) {
+                    log.debug("Broad search failed for word '{}': {}", queries.get(query), e.getMessage());
                 }
             }
+        } finally {
+            // Interrupts queries still in flight; finished ones are unaffected
+            queries.keySet().forEach(query -> query.cancel(true));
         }
-        
-        System.out.println("Extracted " + tossups.size() + " tossup questions");
-        return tossups;
+        return new ArrayList<>(merged.values());
     }
     
-
+    private static String tossupId(JsonNode tossup) {
+        JsonNode id = tossup.get("_id");
+        return id != null ? id.asText() : tossup.path("question").asText();
+    }
     
     /**
      * Extracts top 5-10 multi-word phrases from a list of tossup questions using frequency analysis
@@ -199,22 +335,38 @@ public class FlashcardService {
      * @return List of top ranked multi-word phrases
      */
     public List<String> extractTopPhrasesFromTossups(List<String> tossupQuestions) {
-        Map<String, Integer> phraseFrequency = new HashMap<>();
+        return rankCandidatePhrases(tossupQuestions, 10);
+    }
+    
+    /**
+     * Ranks multi-word phrases from a list of tossup questions by frequency and importance
+     * @param tossupQuestions List of tossup question strings
+     * @param limit Maximum number of phrases to return
+     * @return Phrases in descending score order
+     */
+    List<String> rankCandidatePhrases(List<String> tossupQuestions, int limit) {
         Set<String> stopWords = createStopWordSet();
         
-        // Extract all multi-word phrases from all questions
-        for (String question : tossupQuestions) {
-            List<String> phrases = extractMultiWordPhrases(question);
-            for (String phrase : phrases) {
-                // Filter out phrases with stop words
-                if (!containsStopWords(phrase, stopWords)) {
-                    phraseFrequency.put(phrase, phraseFrequency.getOrDefault(phrase, 0) + 1);
-                }
-            }
-        }
+        // Extract all multi-word phrases from all questions. Large sets are split across the
+        // fork-join pool; each split counts into its own map and the maps are merged in question
+        // order, so first-seen order (and with it tie-breaking) matches a sequential pass.
+        Map<String, Integer> phraseFrequency = questionStream(tossupQuestions).collect(
+                LinkedHashMap::new,
+                (counts, question) -> {
+                    for (String phrase : extractMultiWordPhrases(question)) {
+                        // Filter out phrases with stop words
+                        if (!containsStopWords(phrase, stopWords)) {
+                            counts.merge(phrase, 1, Integer::sum);
+                        }
+                    }
+                },
+                (left, right) -> right.forEach((phrase, count) -> left.merge(phrase, count, Integer::sum)));
+        
+        // Collapse case/plural variants and overlapping n-grams so each lookup is a distinct concept
+        Map<String, Integer> candidates = phraseDeduplicator.deduplicate(phraseFrequency);
         
         // Sort phrases by frequency and importance score
-        return phraseFrequency.entrySet().stream()
+        return candidates.entrySet().stream()
                 .filter(entry -> entry.getValue() >= 1) // At least appears once
                 .filter(entry -> entry.getKey().length() > 3) // Minimum length
                 .sorted((a, b) -> {
@@ -223,7 +375,7 @@ public class FlashcardService {
                     int scoreB = calculatePhraseScore(b.getKey(), b.getValue());
                     return Integer.compare(scoreB, scoreA);
                 })
-                .limit(10) // Top 10 phrases
+                .limit(limit)
                 .map(Map.Entry::getKey)
                 .collect(Collectors.toList());
     }
@@ -328,23 +480,29 @@ public class FlashcardService {
         return score;
     }
     
-    private String findBestContextForPhrase(String phrase, List<String> questions) {
-        String bestContext = "";
-        int bestScore = 0;
-        
-        for (String question : questions) {
-            String context = extractContextSentence(question, phrase);
-            if (context != null && !context.isEmpty()) {
+    String findBestContextForPhrase(String phrase, List<String> questions) {
+        String lowerPhrase = phrase.toLowerCase();
+        return questionStream(questions)
+                .map(question -> extractContextSentence(question, phrase))
+                .filter(context -> context != null && !context.isEmpty())
                 // Score context based on relevance and completeness
-                int score = context.length() + (context.toLowerCase().contains(phrase.toLowerCase()) ? 50 : 0);
-                if (score > bestScore) {
-                    bestScore = score;
-                    bestContext = context;
-                }
-            }
-        }
-        
-        return bestContext.isEmpty() ? "Context not found." : bestContext;
+                .map(context -> new ScoredContext(context,
+                        context.length() + (context.toLowerCase().contains(lowerPhrase) ? 50 : 0)))
+                // Earliest question wins ties, as in a sequential scan
+                .reduce((best, candidate) -> candidate.score() > best.score() ? candidate : best)
+                .map(ScoredContext::context)
+                .orElse("Context not found.");
+    }
+    
+    /**
+     * Questions as a stream, parallel once there are enough of them to outweigh the fork-join
+     * overhead (a default 8-tossup deck stays on the calling thread)
+     */
+    private static Stream<String> questionStream(List<String> questions) {
+        return questions.size() >= PARALLEL_QUESTION_THRESHOLD ? questions.parallelStream() : questions.stream();
+    }
+    
+    private record ScoredContext(String context, int score) {
     }
     
     private List<String> extractKeyPhrases(String text) {
@@ -387,108 +545,119 @@ public class FlashcardService {
     }
     
     /**
-     * Calls Wikipedia REST API and returns the first two sentences of the summary for a key phrase
-     * @param phrase The key phrase to look up on Wikipedia
+     * Returns the first two sentences of the Wikipedia summary for an article, from the cache
+     * when possible
+     * @param title Article title, as resolved by the title index
      * @return First two sentences of the Wikipedia summary, or null if not found
      */
-    private String getWikipediaSummary(String phrase) {
-        try {
-            String encodedPhrase = phrase.replace(" ", "_");
-            String url = "https://en.wikipedia.org/api/rest_v1/page/summary/" + encodedPhrase;
-            
-            System.out.println("Calling Wikipedia API for: " + phrase + " -> " + url);
-            
-            String response = restTemplate.getForObject(url, String.class);
-            
-            JsonNode jsonNode = objectMapper.readTree(response);
-            JsonNode extractNode = jsonNode.get("extract");
-            
-            if (extractNode != null) {
-                String fullSummary = extractNode.asText();
-                String firstTwoSentences = extractFirstTwoSentences(fullSummary);
-                
-                System.out.println("Wikipedia summary for '" + phrase + "': " + 
-                    firstTwoSentences.substring(0, Math.min(100, firstTwoSentences.length())) + "...");
-                
-                return firstTwoSentences;
-            }
-            
-        } catch (Exception e) {
-            // If Wikipedia lookup fails, return null
-            System.out.println("Failed to get Wikipedia summary for: " + phrase + " - " + e.getMessage());
-        }
-        
-        return null;
+    private String getWikipediaSummary(String title) {
+        String summary = caches.summaries().get(title, () -> summaryProvider.summary(title));
+        return summary == null || summary.isEmpty() ? null : summary;
     }
     
     /**
-     * Extracts the first two sentences from a text summary
-     * @param summary The full Wikipedia summary text
-     * @return First two sentences, or the full text if less than two sentences exist
+     * Batch method to get Wikipedia summaries for multiple key phrases
+     * @param phrases List of key phrases to look up
+     * @return Map of phrase -> first two sentences of Wikipedia summary
      */
-    private String extractFirstTwoSentences(String summary) {
-        if (summary == null || summary.trim().isEmpty()) {
-            return "";
-        }
-        
-        // Split by sentence-ending punctuation, but be careful with abbreviations
-        String[] sentences = summary.split("(?<=[.!?])\\s+");
-        
-        StringBuilder result = new StringBuilder();
-        int sentenceCount = 0;
+    public Map<String, String> getWikipediaSummariesBatch(List<String> phrases) {
+        return lookupSummariesUntil(phrases, phrases.size()).summaries();
+    }
+    
+    /**
+     * Looks up ranked phrases until enough summaries are found or the candidates run out. Up to
+     * the configured concurrency lookups are in flight at once, and the next candidate starts as
+     * soon as one finishes; how many are kept in flight follows the expected hit rate, so a deck
+     * that is nearly full does not pay for lookups it won't use. Phrases are resolved through the
+     * title index first: those without an article, or naming an article already in the deck, cost no call.
+     * @param candidates Phrases in ranking order
+     * @param wanted Number of summaries needed
+     * @return Summaries found, in ranking order, and the number of lookups made
+     */
+    LookupResult lookupSummariesUntil(List<String> candidates, int wanted) {
+        CompletionService<String> completion = new ExecutorCompletionService<>(upstreamExecutor);
+        Map<Future<String>, Integer> inFlight = new HashMap<>();
+        // Keyed by candidate index, so the result keeps ranking order whatever order lookups finish in
+        SortedMap<Integer, String> found = new TreeMap<>();
+        Set<String> seenTitles = new HashSet<>();
+        // Requests to Wikipedia itself are spaced out to be respectful to its API
+        long spacingNanos = summaryProvider.isRemote()
+                ? TimeUnit.MILLISECONDS.toNanos(properties.getWikipedia().getRequestDelayMs()) : 0;
+        long lastStart = System.nanoTime() - spacingNanos;
+        int next = 0;
+        int lookups = 0;
+        int unresolved = 0;
         
-        for (String sentence : sentences) {
-            if (sentenceCount >= 2) {
-                break;
-            }
-            
-            // Skip very short fragments (likely abbreviations)
-            if (sentence.trim().length() > 10) {
-                if (result.length() > 0) {
-                    result.append(" ");
+        try {
+            while (found.size() < wanted) {
+                // Lookups still in flight count toward the summaries the deck needs
+                int needed = wanted - found.size();
+                int window = Math.min(wikipediaConcurrency,
+                        (int) Math.ceil(needed / expectedHitRate(found.size(), lookups)));
+                while (inFlight.size() < window && next < candidates.size()) {
+                    int index = next++;
+                    Optional<String> title = titleIndex.resolve(candidates.get(index));
+                    if (title.isEmpty() || !seenTitles.add(title.get())) {
+                        unresolved++;
+                        continue;
+                    }
+                    long wait = lastStart + spacingNanos - System.nanoTime();
+                    if (wait > 0) {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                    lastStart = System.nanoTime();
+                    inFlight.put(completion.submit(() -> getWikipediaSummary(title.get())), index);
+                }
+                if (inFlight.isEmpty()) {
+                    break;
+                }
+                
+                Future<String> lookup = completion.take();
+                int index = inFlight.remove(lookup);
+                lookups++;
+                try {
+                    String summary = lookup.get();
+                    if (summary != null && !summary.trim().isEmpty()) {
+                        found.put(index, summary);
+                    }
+                } catch (ExecutionException e) {
+                    log.debug("Wikipedia lookup failed for '{}': {}", candidates.get(index), e.getCause().getMessage());
                 }
-                result.append(sentence.trim());
-                sentenceCount++;
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Lookups not yet started are dropped. One already sent is left to finish into the
+            // summary cache, where a concurrent generation may be waiting on the same title.
+            inFlight.keySet().forEach(lookup -> lookup.cancel(false));
         }
         
-        // If we couldn't get two good sentences, return the original (up to 300 chars)
-        if (sentenceCount == 0) {
-            return summary.length() > 300 ? summary.substring(0, 300) + "..." : summary;
+        Map<String, String> summaries = new LinkedHashMap<>();
+        found.forEach((index, summary) -> summaries.put(candidates.get(index), summary));
+        if (lookups > 0) {
+            double rate = (double) summaries.size() / lookups;
+            observedHitRate = (1 - HIT_RATE_SMOOTHING) * observedHitRate + HIT_RATE_SMOOTHING * rate;
         }
-        
-        return result.toString();
+        metrics.recordTitleResolution(next - unresolved, unresolved);
+        log.atDebug().setMessage("Wikipedia lookups complete")
+                .addKeyValue("candidates", candidates.size())
+                .addKeyValue("unresolved", unresolved)
+                .addKeyValue("lookups", lookups)
+                .addKeyValue("found", summaries.size())
+                .log();
+        return new LookupResult(summaries, lookups);
     }
     
     /**
-     * Batch method to get Wikipedia summaries for multiple key phrases
-     * @param phrases List of key phrases to look up
-     * @return Map of phrase -> first two sentences of Wikipedia summary
+     * Hit rate for sizing the lookup window: this generation's own hits so far, smoothed toward the
+     * rate observed across recent generations
      */
-    public Map<String, String> getWikipediaSummariesBatch(List<String> phrases) {
-        Map<String, String> summaries = new HashMap<>();
-        
-        System.out.println("Getting Wikipedia summaries for " + phrases.size() + " phrases...");
-        
-        for (String phrase : phrases) {
-            String summary = getWikipediaSummary(phrase);
-            if (summary != null && !summary.trim().isEmpty()) {
-                summaries.put(phrase, summary);
-                System.out.println("✓ Successfully retrieved summary for: " + phrase);
-            } else {
-                System.out.println("✗ No summary found for: " + phrase);
-            }
-            
-            // Small delay to be respectful to Wikipedia API
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
-        
-        System.out.println("Batch completed: " + summaries.size() + "/" + phrases.size() + " summaries retrieved");
-        return summaries;
+    private double expectedHitRate(int hits, int lookups) {
+        double rate = (hits + HIT_RATE_PRIOR_WEIGHT * observedHitRate) / (lookups + HIT_RATE_PRIOR_WEIGHT);
+        return Math.max(MIN_HIT_RATE, rate);
+    }
+    
+    record LookupResult(Map<String, String> summaries, int lookups) {
     }
     
     private String extractContextSentence(String text, String phrase) {
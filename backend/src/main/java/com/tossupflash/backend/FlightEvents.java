@@ -0,0 +1,105 @@
+package com.tossupflash.backend;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.slf4j.MDC;
+
+/**
+ * Java Flight Recorder events for the generation pipeline. They cost next to nothing unless a
+ * recording has them enabled (see {@link FlightRecording} and src/main/resources/jfr/flashcards.jfc),
+ * and every event carries the X-Request-Id of the request that caused it, so one slow request
+ * can be traced from its stages down to the upstream calls and cache lookups inside them.
+ * {@link JfrSummary} turns a recording into per-stage latency breakdowns.
+ */
+public final class FlightEvents {
+    
+    static final String PIPELINE_STAGE = "com.tossupflash.PipelineStage";
+    static final String UPSTREAM_CALL = "com.tossupflash.UpstreamCall";
+    static final String CACHE_LOOKUP = "com.tossupflash.CacheLookup";
+    static final String TOKEN_VALIDATION = "com.tossupflash.TokenValidation";
+    
+    private FlightEvents() {
+    }
+    
+    static String requestId() {
+        return MDC.get(RequestCorrelationFilter.REQUEST_ID_KEY);
+    }
+    
+    @Name(PIPELINE_STAGE)
+    @Label("Pipeline Stage")
+    @Description("One step of flashcard generation")
+    @Category({"TossupFlash", "Generation"})
+    @StackTrace(false)
+    static class PipelineStage extends Event {
+        @Label("Stage")
+        String stage;
+        
+        @Label("Request ID")
+        String requestId;
+    }
+    
+    @Name(UPSTREAM_CALL)
+    @Label("Upstream Call")
+    @Description("HTTP call to QBReader or Wikipedia, until its response body is closed")
+    @Category({"TossupFlash", "Upstream"})
+    @StackTrace(false)
+    static class UpstreamCall extends Event {
+        @Label("Host")
+        String host;
+        
+        @Label("Path")
+        String path;
+        
+        @Label("Status")
+        @Description("HTTP status, or 0 if the call failed with an I/O error")
+        int status;
+        
+        @Label("Response Bytes")
+        @DataAmount
+        long bytes;
+        
+        @Label("Request ID")
+        String requestId;
+    }
+    
+    @Name(CACHE_LOOKUP)
+    @Label("Cache Lookup")
+    @Category({"TossupFlash", "Cache"})
+    @StackTrace(false)
+    static class CacheLookup extends Event {
+        @Label("Cache")
+        String cache;
+        
+        @Label("Key")
+        String key;
+        
+        @Label("Result")
+        @Description("near_hit, remote_hit, miss or coalesced")
+        String result;
+        
+        @Label("Request ID")
+        String requestId;
+    }
+    
+    @Name(TOKEN_VALIDATION)
+    @Label("Token Validation")
+    @Description("JWT verification of an incoming request")
+    @Category({"TossupFlash", "Security"})
+    @StackTrace(false)
+    static class TokenValidation extends Event {
+        @Label("Cached")
+        @Description("Served from the verified-token cache without checking the signature")
+        boolean cached;
+        
+        @Label("Valid")
+        boolean valid;
+        
+        @Label("Request ID")
+        String requestId;
+    }
+}
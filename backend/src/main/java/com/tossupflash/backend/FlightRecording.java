@@ -0,0 +1,72 @@
+package com.tossupflash.backend;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Continuous in-process flight recording (flashcards.jfr.enabled=true): the JDK's "default"
+ * settings plus the {@link FlightEvents} enabled by jfr/flashcards.jfc, kept for
+ * flashcards.jfr.max-age on disk and written to flashcards.jfr.destination on shutdown.
+ * Grab it at any time with {@code jcmd <pid> JFR.dump name=flashcards filename=now.jfr}.
+ */
+@Component
+@ConditionalOnProperty(name = "flashcards.jfr.enabled", havingValue = "true")
+public class FlightRecording implements DisposableBean {
+    
+    static final String SETTINGS_RESOURCE = "jfr/flashcards.jfc";
+    
+    private static final Logger log = LoggerFactory.getLogger(FlightRecording.class);
+    
+    private final Recording recording;
+    private final Path destination;
+    
+    public FlightRecording(FlashcardProperties properties) throws IOException, ParseException {
+        FlashcardProperties.Jfr jfr = properties.getJfr();
+        this.destination = Path.of(jfr.getDestination());
+        Path parent = destination.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        
+        this.recording = new Recording(settings());
+        recording.setName("flashcards");
+        recording.setToDisk(true);
+        recording.setMaxAge(jfr.getMaxAge());
+        recording.setMaxSize(jfr.getMaxSize().toBytes());
+        recording.setDestination(destination);
+        recording.setDumpOnExit(true);
+        recording.start();
+        log.info("Flight recording started, written to {} on shutdown", destination);
+    }
+    
+    static Map<String, String> settings() throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (Reader reader = new InputStreamReader(new ClassPathResource(SETTINGS_RESOURCE).getInputStream(),
+                StandardCharsets.UTF_8)) {
+            settings.putAll(Configuration.create(reader).getSettings());
+        }
+        return settings;
+    }
+    
+    @Override
+    public void destroy() {
+        // Stopping writes the recording to its destination
+        recording.stop();
+        recording.close();
+    }
+}
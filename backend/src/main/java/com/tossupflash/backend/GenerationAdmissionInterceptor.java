@@ -0,0 +1,131 @@
+package com.tossupflash.backend;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for /flashcards. Every generation fans out to QBReader and Wikipedia, so
+ * each client is held to a token bucket (keyed by user ID when signed in, otherwise by IP)
+ * and all clients share a bulkhead of generation slots. Requests that can't get a slot
+ * within a short wait are shed with 429 instead of queueing behind the upstream APIs.
+ */
+@Component
+public class GenerationAdmissionInterceptor implements HandlerInterceptor {
+    
+    private static final Logger log = LoggerFactory.getLogger(GenerationAdmissionInterceptor.class);
+    private static final String PERMIT_ATTRIBUTE = GenerationAdmissionInterceptor.class.getName() + ".permit";
+    
+    private final PipelineMetrics metrics;
+    private final ClientRateLimiter rateLimiter;
+    private final Semaphore slots;
+    private final int maxQueued;
+    private final long maxWaitMs;
+    private final AtomicInteger queued = new AtomicInteger();
+    
+    public GenerationAdmissionInterceptor(FlashcardProperties properties, PipelineMetrics metrics) {
+        FlashcardProperties.Admission admission = properties.getAdmission();
+        this.metrics = metrics;
+        this.rateLimiter = admission.getRefillPerMinute() > 0
+                ? new ClientRateLimiter(admission.getBurst(), admission.getRefillPerMinute())
+                : null;
+        this.slots = admission.getMaxConcurrent() > 0 ? new Semaphore(admission.getMaxConcurrent(), true) : null;
+        this.maxQueued = admission.getMaxQueued();
+        this.maxWaitMs = admission.getMaxWaitMs();
+        
+        if (slots != null) {
+            int maxConcurrent = admission.getMaxConcurrent();
+            metrics.bindAdmissionGauges(() -> maxConcurrent - slots.availablePermits(), queued::get);
+        }
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        // Take the slot first so a request shed as busy doesn't also spend the client's token
+        if (slots != null && !acquireSlot()) {
+            metrics.recordAdmissionRejected("busy");
+            reject(response, 1, "Server is busy. Please try again in a moment.");
+            return false;
+        }
+        
+        if (rateLimiter != null) {
+            ClientRateLimiter.Decision decision = rateLimiter.tryAcquire(clientKey(request));
+            response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+            response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+            response.setHeader("RateLimit-Reset", String.valueOf(toSeconds(decision.resetNanos())));
+            if (!decision.allowed()) {
+                if (slots != null) {
+                    slots.release();
+                }
+                metrics.recordAdmissionRejected("rate_limited");
+                reject(response, toSeconds(decision.retryAfterNanos()),
+                        "Too many flashcard requests. Please wait before generating more.");
+                return false;
+            }
+        }
+        
+        if (slots != null) {
+            request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            slots.release();
+        }
+    }
+    
+    private boolean acquireSlot() throws InterruptedException {
+        if (slots.tryAcquire()) {
+            return true;
+        }
+        // Bounded wait queue: past maxQueued waiters, shed immediately
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return slots.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+    
+    /**
+     * @return The caller's user ID, or its address when anonymous
+     */
+    static String clientKey(HttpServletRequest request) {
+        // userId is set by JwtAuthFilter for signed-in callers
+        Object userId = request.getAttribute("userId");
+        return userId != null ? "user:" + userId : "ip:" + request.getRemoteAddr();
+    }
+    
+    private static long toSeconds(long nanos) {
+        // Round up so clients never retry before the window has actually passed
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+    
+    private static void reject(HttpServletResponse response, long retryAfterSeconds, String message)
+            throws IOException {
+        log.debug("Rejected flashcard request: {}", message);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfterSeconds)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,184 @@
+package com.tossupflash.backend;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summarizes a flight recording of the {@link FlightEvents} into per-stage latency breakdowns.
+ * Uses only the JDK, so it runs straight from the plain jar:
+ * <pre>
+ *   jcmd &lt;pid&gt; JFR.dump name=flashcards filename=slow.jfr
+ *   java -cp target/backend-0.0.1-SNAPSHOT.jar com.tossupflash.backend.JfrSummary slow.jfr [slowest]
+ * </pre>
+ * Prints latency percentiles per pipeline stage, upstream calls by host and status, cache
+ * results per cache, token checks, and the slowest requests broken down by stage.
+ */
+public class JfrSummary {
+    
+    private static final int DEFAULT_SLOWEST = 10;
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: JfrSummary <recording.jfr> [slowest requests to list]");
+            System.exit(2);
+        }
+        summarize(Path.of(args[0]), args.length == 2 ? Integer.parseInt(args[1]) : DEFAULT_SLOWEST, System.out);
+    }
+    
+    /**
+     * Reads a recording and prints its summary
+     * @param recording A .jfr file
+     * @param slowest Number of slowest requests to break down
+     * @param out Where the report goes
+     * @throws IOException if the recording cannot be read
+     */
+    public static void summarize(Path recording, int slowest, PrintStream out) throws IOException {
+        Map<String, Durations> stages = new LinkedHashMap<>();
+        for (PipelineMetrics.Stage stage : PipelineMetrics.Stage.values()) {
+            stages.put(stage.tag(), new Durations());
+        }
+        Map<String, Durations> upstream = new TreeMap<>();
+        Map<String, Long> upstreamBytes = new TreeMap<>();
+        Map<String, Map<String, Integer>> cacheResults = new TreeMap<>();
+        Durations tokens = new Durations();
+        int cachedTokens = 0;
+        int invalidTokens = 0;
+        Map<String, RequestBreakdown> requests = new LinkedHashMap<>();
+        
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                long nanos = event.getDuration().toNanos();
+                String requestId = event.hasField("requestId") ? event.getString("requestId") : null;
+                switch (event.getEventType().getName()) {
+                    case FlightEvents.PIPELINE_STAGE -> {
+                        String stage = event.getString("stage");
+                        stages.computeIfAbsent(stage, s -> new Durations()).add(nanos);
+                        if (requestId != null) {
+                            requests.computeIfAbsent(requestId, RequestBreakdown::new).addStage(stage, nanos);
+                        }
+                    }
+                    case FlightEvents.UPSTREAM_CALL -> {
+                        String key = event.getString("host") + " " + status(event.getInt("status"));
+                        upstream.computeIfAbsent(key, k -> new Durations()).add(nanos);
+                        upstreamBytes.merge(key, event.getLong("bytes"), Long::sum);
+                        if (requestId != null) {
+                            requests.computeIfAbsent(requestId, RequestBreakdown::new).upstreamCalls++;
+                        }
+                    }
+                    case FlightEvents.CACHE_LOOKUP -> cacheResults
+                            .computeIfAbsent(event.getString("cache"), c -> new TreeMap<>())
+                            .merge(event.getString("result"), 1, Integer::sum);
+                    case FlightEvents.TOKEN_VALIDATION -> {
+                        tokens.add(nanos);
+                        cachedTokens += event.getBoolean("cached") ? 1 : 0;
+                        invalidTokens += event.getBoolean("valid") ? 0 : 1;
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+        
+        long stageTotal = stages.values().stream().mapToLong(d -> d.total).sum();
+        out.println("Pipeline stages (ms)");
+        out.printf("  %-18s %7s %9s %9s %9s %9s %7s%n", "stage", "count", "p50", "p95", "p99", "max", "share");
+        stages.forEach((stage, d) -> out.printf("  %-18s %7d %9.1f %9.1f %9.1f %9.1f %6.1f%%%n", stage, d.count(),
+                d.percentileMs(50), d.percentileMs(95), d.percentileMs(99), d.percentileMs(100),
+                stageTotal == 0 ? 0.0 : 100.0 * d.total / stageTotal));
+        
+        out.println();
+        out.println("Upstream calls (ms)");
+        out.printf("  %-30s %7s %9s %9s %9s %12s%n", "host status", "count", "p50", "p95", "max", "bytes");
+        upstream.forEach((key, d) -> out.printf("  %-30s %7d %9.1f %9.1f %9.1f %12d%n", key, d.count(),
+                d.percentileMs(50), d.percentileMs(95), d.percentileMs(100), upstreamBytes.get(key)));
+        
+        out.println();
+        out.println("Cache lookups");
+        cacheResults.forEach((cache, results) -> {
+            int total = results.values().stream().mapToInt(Integer::intValue).sum();
+            int hits = results.getOrDefault("near_hit", 0) + results.getOrDefault("remote_hit", 0);
+            out.printf("  %-10s %7d lookups, %5.1f%% hits %s%n", cache, total, 100.0 * hits / total, results);
+        });
+        
+        out.println();
+        out.printf("Token validations: %d (%d cached, %d invalid), p99 %.3f ms%n",
+                tokens.count(), cachedTokens, invalidTokens, tokens.percentileMs(99));
+        
+        List<RequestBreakdown> slowestRequests = new ArrayList<>(requests.values());
+        slowestRequests.sort(Comparator.comparingLong((RequestBreakdown r) -> r.total).reversed());
+        out.println();
+        out.println("Slowest requests (ms)");
+        for (RequestBreakdown request : slowestRequests.subList(0, Math.min(slowest, slowestRequests.size()))) {
+            StringBuilder line = new StringBuilder();
+            request.stages.forEach((stage, nanos) -> line.append(String.format(" %s=%.1f", stage, nanos / 1e6)));
+            out.printf("  %-36s %9.1f  upstream=%d %s%n", request.requestId, request.total / 1e6,
+                    request.upstreamCalls, line.toString().trim());
+        }
+    }
+    
+    private static String status(int status) {
+        return status == 0 ? "io_error" : String.valueOf(status);
+    }
+    
+    /**
+     * Durations of one kind of event, for percentiles
+     */
+    private static class Durations {
+        private long[] nanos = new long[64];
+        private int count;
+        private long total;
+        private boolean sorted;
+        
+        void add(long value) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+            total += value;
+            sorted = false;
+        }
+        
+        int count() {
+            return count;
+        }
+        
+        double percentileMs(int percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            if (!sorted) {
+                Arrays.sort(nanos, 0, count);
+                sorted = true;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            return nanos[Math.max(0, index)] / 1e6;
+        }
+    }
+    
+    private static class RequestBreakdown {
+        private final String requestId;
+        private final Map<String, Long> stages = new LinkedHashMap<>();
+        private long total;
+        private int upstreamCalls;
+        
+        RequestBreakdown(String requestId) {
+            this.requestId = requestId;
+        }
+        
+        void addStage(String stage, long nanos) {
+            stages.merge(stage, nanos, Long::sum);
+            total += nanos;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.tossupflash.backend;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,6 +17,8 @@ import java.util.ArrayList;
 
 public class JwtAuthFilter extends OncePerRequestFilter {
     
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthFilter.class);
+    
     @Autowired
     private JwtUtil jwtUtil;
     
@@ -23,39 +28,25 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         
         final String authorizationHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwt = null;
-        
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-                System.out.println("DEBUG: Successfully extracted username: " + username);
-            } catch (Exception e) {
-                System.out.println("DEBUG: Failed to extract username from JWT: " + e.getMessage());
-                e.printStackTrace();
-            }
-        }
-        
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
             try {
-                if (jwtUtil.validateToken(jwt, username)) {
-                    System.out.println("DEBUG: JWT token validation successful for user: " + username);
-                    UsernamePasswordAuthenticationToken authToken = 
-                        new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    
-                    // Store user ID in request for later use
-                    Long userId = jwtUtil.extractUserId(jwt);
-                    System.out.println("DEBUG: Setting userId in request: " + userId);
-                    request.setAttribute("userId", userId);
-                } else {
-                    System.out.println("DEBUG: JWT token validation failed for user: " + username);
-                }
+                // One verification per request; repeat tokens are served from JwtUtil's cache
+                Claims claims = jwtUtil.parseVerifiedClaims(jwt);
+                String username = claims.getSubject();
+                
+                UsernamePasswordAuthenticationToken authToken = 
+                    new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                
+                // Store user ID in request for later use
+                Long userId = claims.get("userId", Long.class);
+                log.debug("Authenticated user {} (id {})", username, userId);
+                request.setAttribute("userId", userId);
             } catch (Exception e) {
-                System.out.println("DEBUG: Exception during JWT validation: " + e.getMessage());
-                e.printStackTrace();
+                log.debug("JWT token validation failed: {}", e.getMessage());
             }
         }
         
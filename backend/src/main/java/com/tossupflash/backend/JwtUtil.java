@@ -1,66 +1,150 @@
 package com.tossupflash.backend;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
     private final String SECRET_KEY = "qbcarder-secret-key-that-is-long-enough-for-jwt-security-requirements";
     private final long EXPIRATION_TIME = 86400000; // 24 hours in milliseconds
-    
+    private final long MAX_CACHED_TOKENS = 10_000;
+
+    // Key and parser are immutable and thread-safe, so build them once
+    private final SecretKey signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private final JwtParser parser = Jwts.parser().verifyWith(signingKey).build();
+
+    // Verified claims keyed by token digest; each entry lives until its token expires
+    private final Cache<String, Claims> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_TOKENS)
+            .expireAfter(new TokenExpiry())
+            .build();
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        return signingKey;
     }
-    
+
     public String generateToken(String username, Long userId) {
+        return generateToken(username, userId, EXPIRATION_TIME);
+    }
+
+    String generateToken(String username, Long userId, long validityMillis) {
         return Jwts.builder()
                 .subject(username)
                 .claim("userId", userId)
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+                .expiration(new Date(System.currentTimeMillis() + validityMillis))
                 .signWith(getSigningKey())
                 .compact();
     }
-    
+
+    /**
+     * Verifies the token signature and expiry and returns its claims. A token is only
+     * parsed once; later calls with the same token are served from a bounded cache
+     * until the token expires.
+     * @param token The compact JWT string
+     * @return Verified claims of the token
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parseVerifiedClaims(String token) {
+        FlightEvents.TokenValidation event = new FlightEvents.TokenValidation();
+        event.begin();
+        try {
+            String digest = digest(token);
+            Claims cached = verifiedTokens.getIfPresent(digest);
+            if (cached != null) {
+                event.cached = true;
+                event.valid = true;
+                return cached;
+            }
+
+            Claims claims = extractAllClaims(token);
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(digest, claims);
+            }
+            event.valid = true;
+            return claims;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.requestId = FlightEvents.requestId();
+                event.commit();
+            }
+        }
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
-    
+
     public Long extractUserId(String token) {
         return extractClaim(token, claims -> claims.get("userId", Long.class));
     }
-    
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
-    
+
     public <T> T extractClaim(String token, ClaimsResolver<T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseVerifiedClaims(token);
         return claimsResolver.resolve(claims);
     }
-    
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return parser
                 .parseSignedClaims(token)
                 .getPayload();
     }
-    
+
     public Boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
-    
+
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        final Claims claims = parseVerifiedClaims(token);
+        return (claims.getSubject().equals(username) && !claims.getExpiration().before(new Date()));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory on every Java platform
+            throw new IllegalStateException(e);
+        }
     }
-    
+
+    private static class TokenExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
     @FunctionalInterface
     public interface ClaimsResolver<T> {
         T resolve(Claims claims);
     }
-} 
\ No newline at end of file
+}
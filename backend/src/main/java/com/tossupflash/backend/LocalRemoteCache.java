@@ -0,0 +1,68 @@
+package com.tossupflash.backend;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for the shared tier, used for single-node runs and tests. It behaves
+ * like the Redis adapter (per-entry expiry, invalidation and channel broadcasts) without any outside service.
+ */
+public class LocalRemoteCache implements RemoteCache {
+    
+    private final Cache<String, Entry> entries;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, List<Consumer<String>>> subscribers = new ConcurrentHashMap<>();
+    
+    public LocalRemoteCache(long maxEntries) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(Expiry.writing((String key, Entry entry) -> entry.ttl()))
+                .build();
+    }
+    
+    @Override
+    public String get(String key) {
+        Entry entry = entries.getIfPresent(key);
+        return entry != null ? entry.value() : null;
+    }
+    
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        entries.put(key, new Entry(value, ttl));
+    }
+    
+    @Override
+    public void invalidate(String key) {
+        entries.invalidate(key);
+        for (Consumer<String> listener : listeners) {
+            listener.accept(key);
+        }
+    }
+    
+    @Override
+    public void onInvalidation(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+    
+    @Override
+    public void publish(String channel, String message) {
+        for (Consumer<String> listener : subscribers.getOrDefault(channel, List.of())) {
+            listener.accept(message);
+        }
+    }
+    
+    @Override
+    public void subscribe(String channel, Consumer<String> listener) {
+        subscribers.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+    
+    private record Entry(String value, Duration ttl) {
+    }
+}
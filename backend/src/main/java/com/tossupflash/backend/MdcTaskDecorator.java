@@ -0,0 +1,31 @@
+package com.tossupflash.backend;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import java.util.Map;
+
+/**
+ * Carries the submitting thread's MDC (request correlation id) over to executor threads
+ */
+public class MdcTaskDecorator implements TaskDecorator {
+    
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            if (context != null) {
+                MDC.setContextMap(context);
+            }
+            try {
+                runnable.run();
+            } finally {
+                if (previous != null) {
+                    MDC.setContextMap(previous);
+                } else {
+                    MDC.clear();
+                }
+            }
+        };
+    }
+}
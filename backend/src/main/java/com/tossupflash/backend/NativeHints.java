@@ -0,0 +1,78 @@
+package com.tossupflash.backend;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection and resource hints for the GraalVM native image (-Pnative). Spring AOT covers
+ * beans and controller signatures; this adds what is only reached reflectively at runtime.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+    
+    // jjwt 0.12 wires its implementation module by class name (Classes.newInstance)
+    private static final String[] JJWT_IMPLEMENTATIONS = {
+        "io.jsonwebtoken.impl.DefaultJwtBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+        "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+        "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardKeyOperations",
+        "io.jsonwebtoken.impl.security.StandardCurves",
+        "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+        "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+        "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+        "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+        "io.jsonwebtoken.jackson.io.JacksonSerializer",
+        "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    };
+    
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : JJWT_IMPLEMENTATIONS) {
+            hints.reflection().registerTypeIfPresent(classLoader, type,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        // jjwt finds its JSON serializer through ServiceLoader
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+        
+        // Jackson: entities returned as JSON, and types serialized by hand (cache tier, requests,
+        // SseEmitter.data on the change stream)
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        bindings.registerReflectionHints(hints.reflection(),
+            User.class,
+            SavedFlashcard.class,
+            SavedFlashcardChange.class,
+            Flashcard.class,
+            AuthService.AuthResponse.class,
+            AuthController.RegisterRequest.class,
+            AuthController.LoginRequest.class,
+            SavedFlashcardController.SaveFlashcardRequest.class,
+            SavedFlashcardChangeLog.Feed.class,
+            SavedFlashcardChangeLog.Change.class,
+            SavedFlashcardRepository.ExportRow.class,
+            SavedFlashcardRepository.ReviewCard.class,
+            ReviewSchedule.class,
+            ReviewController.DueCards.class,
+            ReviewController.GradeRequest.class);
+        
+        // JPA entities are also read and written field by field by Hibernate
+        for (Class<?> entity : new Class<?>[] { User.class, SavedFlashcard.class, SavedFlashcardChange.class }) {
+            hints.reflection().registerType(entity,
+                MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        
+        // Query projections built by "select new ..." constructor expressions
+        for (Class<?> projection : new Class<?>[] {
+                SavedFlashcardRepository.ExportRow.class, SavedFlashcardRepository.ReviewCard.class,
+                ReviewSchedule.class }) {
+            hints.reflection().registerType(projection, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+    }
+}
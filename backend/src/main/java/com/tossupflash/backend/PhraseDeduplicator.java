@@ -0,0 +1,167 @@
+package com.tossupflash.backend;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collapses overlapping and near-duplicate candidate phrases before they are ranked, so the
+ * Wikipedia batch isn't spent on several variants of one concept.
+ * <p>
+ * Two passes over the counted n-grams:
+ * <ol>
+ *   <li>Merge: phrases that differ only in case or plural ("Treaty Versailles",
+ *       "treaty versailles") are merged under one surface form and their counts summed.</li>
+ *   <li>Subsume: candidates go into a word trie; for each longer phrase the trie yields every
+ *       shorter candidate inside it. A shorter phrase seen no more often than the longer one only
+ *       occurs as part of it and is dropped; a longer phrase that is rarer than one of its parts
+ *       is a noisy extension ("Treaty Versailles Germany") and is dropped instead, together
+ *       with the fragments that only appeared inside it.</li>
+ * </ol>
+ */
+public class PhraseDeduplicator {
+    
+    /**
+     * @param phraseFrequency Candidate phrase -> occurrences across the tossups
+     * @return The surviving phrases with their (merged) counts
+     */
+    public Map<String, Integer> deduplicate(Map<String, Integer> phraseFrequency) {
+        Map<String, Candidate> merged = mergeVariants(phraseFrequency);
+        Set<String> dropped = findSubsumed(merged);
+        
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Candidate> entry : merged.entrySet()) {
+            if (!dropped.contains(entry.getKey())) {
+                Candidate candidate = entry.getValue();
+                result.put(candidate.surfaceForm(), candidate.count);
+            }
+        }
+        return result;
+    }
+    
+    private Map<String, Candidate> mergeVariants(Map<String, Integer> phraseFrequency) {
+        Map<String, Candidate> byCanonical = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : phraseFrequency.entrySet()) {
+            String[] words = canonicalWords(entry.getKey());
+            byCanonical.computeIfAbsent(String.join(" ", words), key -> new Candidate(words))
+                    .add(entry.getKey(), entry.getValue());
+        }
+        return byCanonical;
+    }
+    
+    private Set<String> findSubsumed(Map<String, Candidate> candidates) {
+        TrieNode root = new TrieNode();
+        for (Map.Entry<String, Candidate> entry : candidates.entrySet()) {
+            TrieNode node = root;
+            for (String word : entry.getValue().words) {
+                node = node.children.computeIfAbsent(word, w -> new TrieNode());
+            }
+            node.phraseKey = entry.getKey();
+        }
+        
+        Set<String> dropped = new HashSet<>();
+        for (Map.Entry<String, Candidate> entry : candidates.entrySet()) {
+            int wholeCount = entry.getValue().count;
+            List<String> parts = containedPhrases(root, entry.getValue().words);
+            int strongestPart = parts.stream().mapToInt(part -> candidates.get(part).count).max().orElse(0);
+            
+            if (strongestPart > wholeCount) {
+                // Noisy extension of a more common phrase: drop it along with the fragments
+                // that only ever appeared inside it
+                dropped.add(entry.getKey());
+                parts.stream().filter(part -> candidates.get(part).count <= wholeCount).forEach(dropped::add);
+            } else {
+                // Its parts never appear on their own, so the longer phrase speaks for them
+                dropped.addAll(parts);
+            }
+        }
+        return dropped;
+    }
+    
+    /**
+     * Walks the trie from every word of the phrase, collecting the candidates that are proper
+     * contiguous sub-phrases of it
+     */
+    private static List<String> containedPhrases(TrieNode root, String[] words) {
+        List<String> contained = new ArrayList<>();
+        for (int start = 0; start < words.length; start++) {
+            TrieNode node = root;
+            for (int end = start; end < words.length; end++) {
+                node = node.children.get(words[end]);
+                if (node == null) {
+                    break;
+                }
+                boolean wholePhrase = start == 0 && end == words.length - 1;
+                if (node.phraseKey != null && !wholePhrase) {
+                    contained.add(node.phraseKey);
+                }
+            }
+        }
+        return contained;
+    }
+    
+    static String[] canonicalWords(String phrase) {
+        String[] words = phrase.toLowerCase(Locale.ROOT).split("\\s+");
+        for (int i = 0; i < words.length; i++) {
+            words[i] = singular(words[i]);
+        }
+        return words;
+    }
+    
+    /**
+     * Rough English singular, only used to group variants (never shown to users)
+     */
+    static String singular(String word) {
+        if (word.length() <= 3 || word.endsWith("ss") || word.endsWith("us") || word.endsWith("is")) {
+            return word;
+        }
+        if (word.endsWith("ies") && word.length() > 4) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("ches") || word.endsWith("shes") || word.endsWith("xes") || word.endsWith("sses")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+    
+    private static class Candidate {
+        private final String[] words;
+        private final Map<String, Integer> forms = new HashMap<>();
+        private int count;
+        
+        private Candidate(String[] words) {
+            this.words = words;
+        }
+        
+        private void add(String form, int occurrences) {
+            forms.merge(form, occurrences, Integer::sum);
+            count += occurrences;
+        }
+        
+        /**
+         * Most frequent spelling; ties go to the shorter (usually singular) form, then alphabetical
+         */
+        private String surfaceForm() {
+            return forms.entrySet().stream()
+                    .min(Comparator.<Map.Entry<String, Integer>>comparingInt(e -> -e.getValue())
+                            .thenComparingInt(e -> e.getKey().length())
+                            .thenComparing(Map.Entry::getKey))
+                    .map(Map.Entry::getKey)
+                    .orElseThrow();
+        }
+    }
+    
+    private static class TrieNode {
+        private final Map<String, TrieNode> children = new HashMap<>();
+        private String phraseKey;
+    }
+}
@@ -0,0 +1,280 @@
+package com.tossupflash.backend;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the flashcard generation pipeline. Exposed in Prometheus format
+ * at /actuator/prometheus.
+ */
+@Component
+public class PipelineMetrics {
+    
+    /**
+     * The five steps of FlashcardService.generateFlashcards
+     */
+    public enum Stage {
+        QBREADER_FETCH("qbreader_fetch"),
+        EXTRACTION("extraction"),
+        PHRASE_SCORING("phrase_scoring"),
+        WIKIPEDIA_BATCH("wikipedia_batch"),
+        CARD_ASSEMBLY("card_assembly");
+        
+        private final String tag;
+        
+        Stage(String tag) {
+            this.tag = tag;
+        }
+        
+        public String tag() {
+            return tag;
+        }
+    }
+    
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<String, Timer> upstreamTimers = new ConcurrentHashMap<>();
+    private final DistributionSummary yieldRatio;
+    private final Counter phrasesAnalyzed;
+    private final Counter cardsCreated;
+    
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("flashcards.generation.stage")
+                    .description("Latency of each flashcard generation step")
+                    .tag("stage", stage.tag())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        
+        this.yieldRatio = DistributionSummary.builder("flashcards.generation.yield")
+                .description("Cards created divided by phrases analysed, per generation")
+                .maximumExpectedValue(1.0)
+                .serviceLevelObjectives(0.25, 0.5, 0.75, 1.0)
+                .register(registry);
+        this.phrasesAnalyzed = Counter.builder("flashcards.generation.phrases")
+                .description("Phrases analysed across all generations")
+                .register(registry);
+        this.cardsCreated = Counter.builder("flashcards.generation.cards")
+                .description("Flashcards created across all generations")
+                .register(registry);
+    }
+    
+    /**
+     * Starts timing a pipeline stage; use in try-with-resources so stages that throw are timed too
+     * @param stage The stage being timed
+     * @return Handle to close once the stage has finished
+     */
+    public StageTimer startStage(Stage stage) {
+        return new StageTimer(stageTimers.get(stage), stage);
+    }
+    
+    /**
+     * Records the outcome of one generation
+     * @param phrases Number of candidate phrases analysed
+     * @param cards Number of flashcards produced
+     */
+    public void recordYield(int phrases, int cards) {
+        phrasesAnalyzed.increment(phrases);
+        cardsCreated.increment(cards);
+        if (phrases > 0) {
+            yieldRatio.record((double) cards / phrases);
+        }
+    }
+    
+    /**
+     * Records one outbound HTTP call to QBReader or Wikipedia
+     * @param host Upstream host name
+     * @param outcome SUCCESS, CLIENT_ERROR, SERVER_ERROR or IO_ERROR
+     * @param nanos Call duration in nanoseconds, up to the response being closed
+     */
+    public void recordUpstreamCall(String host, String outcome, long nanos) {
+        registry.counter("flashcards.upstream.requests", "host", host, "outcome", outcome).increment();
+        upstreamTimers.computeIfAbsent(host, key -> Timer.builder("flashcards.upstream.latency")
+                        .tag("host", key)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Records a /flashcards request turned away before generation started
+     * @param reason rate_limited (client over its quota) or busy (no free generation slot)
+     */
+    public void recordAdmissionRejected(String reason) {
+        registry.counter("flashcards.admission.rejected", "reason", reason).increment();
+    }
+    
+    /**
+     * Exposes the generation bulkhead's occupancy
+     * @param active Generations currently running
+     * @param queued Requests waiting for a slot
+     */
+    public void bindAdmissionGauges(Supplier<Number> active, Supplier<Number> queued) {
+        Gauge.builder("flashcards.admission.active", active)
+                .description("Flashcard generations currently running")
+                .register(registry);
+        Gauge.builder("flashcards.admission.queued", queued)
+                .description("Flashcard requests waiting for a generation slot")
+                .register(registry);
+    }
+    
+    /**
+     * Records one cache lookup
+     * @param cache Cache name (tossups, summaries or decks)
+     * @param result near_hit, remote_hit, miss or coalesced (waited on another caller's load)
+     */
+    public void recordCacheLookup(String cache, String result) {
+        registry.counter("flashcards.cache.requests", "cache", cache, "result", result).increment();
+    }
+    
+    /**
+     * Exposes a cache's near-tier size and its loads in progress
+     * @param cache Cache name
+     * @param size Entries in the in-process tier
+     * @param loadsInFlight Keys currently being loaded
+     */
+    public void bindCacheGauges(String cache, Supplier<Number> size, Supplier<Number> loadsInFlight) {
+        Gauge.builder("flashcards.cache.size", size)
+                .description("Entries in the in-process cache tier")
+                .tag("cache", cache)
+                .register(registry);
+        Gauge.builder("flashcards.cache.loads.in.flight", loadsInFlight)
+                .description("Cache keys being loaded; concurrent callers for the same key wait on these")
+                .tag("cache", cache)
+                .register(registry);
+    }
+    
+    /**
+     * Exposes the smoothed share of Wikipedia lookups that return a summary
+     * @param hitRate Current estimate, used to size lookup waves
+     */
+    public void bindWikipediaHitRate(Supplier<Number> hitRate) {
+        Gauge.builder("flashcards.wikipedia.hit.rate", hitRate)
+                .description("Smoothed share of Wikipedia lookups that return a summary")
+                .register(registry);
+    }
+    
+    /**
+     * Records how candidate phrases fared against the title index
+     * @param resolved Phrases sent on to Wikipedia
+     * @param unresolved Phrases skipped without a call (no article, or an article already looked up)
+     */
+    public void recordTitleResolution(int resolved, int unresolved) {
+        registry.counter("flashcards.wikipedia.titles", "result", "resolved").increment(resolved);
+        registry.counter("flashcards.wikipedia.titles", "result", "unresolved").increment(unresolved);
+    }
+    
+    /**
+     * Exposes the number of topics the typeahead can suggest
+     * @param topics Topics in the current suggestion index snapshot
+     */
+    public void bindSuggestionIndexSize(Supplier<Number> topics) {
+        Gauge.builder("flashcards.suggest.topics", topics)
+                .description("Topics in the current suggestion index")
+                .register(registry);
+    }
+    
+    /**
+     * Exposes the write-behind save backlog
+     * @param pending Saves acknowledged but not yet committed to the database
+     */
+    public void bindSaveQueueDepth(Supplier<Number> pending) {
+        Gauge.builder("flashcards.saves.pending", pending)
+                .description("Saved flashcards acknowledged but not yet in the database")
+                .register(registry);
+    }
+    
+    /**
+     * Records one append-and-fsync of the save journal
+     * @param saves Saves made durable by the fsync
+     * @param nanos Write and fsync duration in nanoseconds
+     */
+    public void recordSaveJournalSync(int saves, long nanos) {
+        Timer.builder("flashcards.saves.journal.sync")
+                .description("Save journal append plus fsync, shared by every save in the batch")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("flashcards.saves.journal.batch")
+                .description("Saves per journal fsync")
+                .register(registry)
+                .record(saves);
+    }
+    
+    /**
+     * Records one database write of a batch of write-behind saves
+     * @param saves Saves in the batch
+     * @param outcome committed (one transaction), split (written save by save after a rejection)
+     *                or failed (retried later)
+     * @param nanos Flush duration in nanoseconds
+     */
+    public void recordSaveFlush(int saves, String outcome, long nanos) {
+        Timer.builder("flashcards.saves.flush")
+                .description("Database write of a batch of write-behind saves")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("flashcards.saves.flush.batch")
+                .description("Saves per database write")
+                .register(registry)
+                .record(saves);
+    }
+    
+    /**
+     * Exposes the number of open saved-collection change streams
+     * @param streams Open server-sent event streams across all users
+     */
+    public void bindSyncStreams(Supplier<Number> streams) {
+        Gauge.builder("flashcards.sync.streams", streams)
+                .description("Open saved-collection change streams")
+                .register(registry);
+    }
+    
+    /**
+     * Counts one read of the saved-collection change log
+     * @param outcome delta (changes served), current (client already up to date) or reset
+     *                (client told to reload the whole list)
+     */
+    public void recordSyncFeed(String outcome) {
+        Counter.builder("flashcards.sync.feeds")
+                .description("Change log reads by outcome")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+    
+    public static class StageTimer implements AutoCloseable {
+        private final Timer timer;
+        private final FlightEvents.PipelineStage event = new FlightEvents.PipelineStage();
+        private final long startNanos = System.nanoTime();
+        
+        private StageTimer(Timer timer, Stage stage) {
+            this.timer = timer;
+            event.stage = stage.tag();
+            event.begin();
+        }
+        
+        @Override
+        public void close() {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.requestId = FlightEvents.requestId();
+                event.commit();
+            }
+        }
+    }
+}
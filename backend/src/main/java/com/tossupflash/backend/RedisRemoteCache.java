@@ -0,0 +1,67 @@
+package com.tossupflash.backend;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Shared tier on any Redis-protocol server (Redis, Valkey, KeyDB, ...). Values are plain
+ * strings with a server-side TTL; invalidations go out on a pub/sub channel that every
+ * replica subscribes to.
+ */
+public class RedisRemoteCache implements RemoteCache {
+    
+    static final String INVALIDATION_CHANNEL = "flashcards:cache:invalidate";
+    
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    
+    public RedisRemoteCache(StringRedisTemplate redis, RedisMessageListenerContainer listenerContainer) {
+        this.redis = redis;
+        this.listenerContainer = listenerContainer;
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String key = new String(message.getBody(), StandardCharsets.UTF_8);
+            for (Consumer<String> listener : listeners) {
+                listener.accept(key);
+            }
+        }, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+    
+    @Override
+    public String get(String key) {
+        return redis.opsForValue().get(key);
+    }
+    
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        redis.opsForValue().set(key, value, ttl);
+    }
+    
+    @Override
+    public void invalidate(String key) {
+        redis.delete(key);
+        redis.convertAndSend(INVALIDATION_CHANNEL, key);
+    }
+    
+    @Override
+    public void onInvalidation(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+    
+    @Override
+    public void publish(String channel, String message) {
+        redis.convertAndSend(channel, message);
+    }
+    
+    @Override
+    public void subscribe(String channel, Consumer<String> listener) {
+        listenerContainer.addMessageListener((message, pattern) ->
+                listener.accept(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(channel));
+    }
+}
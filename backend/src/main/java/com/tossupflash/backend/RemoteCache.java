@@ -0,0 +1,53 @@
+package com.tossupflash.backend;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Shared cache tier behind {@link TwoTierCache}. Values are serialized strings so any
+ * key/value store can back it; invalidations are broadcast to every node so their
+ * in-process tiers drop stale entries. Other node-wide notices use the same broadcast
+ * through {@link #publish}.
+ */
+public interface RemoteCache {
+    
+    /**
+     * @param key Fully qualified cache key
+     * @return The stored value, or null if absent or expired
+     */
+    String get(String key);
+    
+    /**
+     * Stores a value that expires after the given time to live
+     * @param key Fully qualified cache key
+     * @param value Serialized value
+     * @param ttl Time to live
+     */
+    void put(String key, String value, Duration ttl);
+    
+    /**
+     * Removes a value and tells every node (this one included) to drop its near copy
+     * @param key Fully qualified cache key
+     */
+    void invalidate(String key);
+    
+    /**
+     * Registers a listener for invalidations published by any node
+     * @param listener Receives the invalidated key
+     */
+    void onInvalidation(Consumer<String> listener);
+    
+    /**
+     * Sends a message to the listeners of a channel on every node (this one included)
+     * @param channel Channel name
+     * @param message Message text
+     */
+    void publish(String channel, String message);
+    
+    /**
+     * Registers a listener for messages published on a channel by any node
+     * @param channel Channel name
+     * @param listener Receives the message text
+     */
+    void subscribe(String channel, Consumer<String> listener);
+}
@@ -0,0 +1,98 @@
+package com.tossupflash.backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Study mode over saved cards: the next cards due for review, and grading a card after review.
+ * Both go through the (user_id, due_at) index, so they cost the same for ten cards or 100k.
+ */
+@RestController
+@RequestMapping("/reviews")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ReviewController {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReviewController.class);
+    
+    private static final int MAX_LIMIT = 100;
+    // Due cards are counted up to here; an exact count would scan every due row
+    private static final int MAX_COUNTED = 1000;
+    
+    @Autowired
+    private SavedFlashcardRepository savedFlashcardRepository;
+    
+    /**
+     * @param limit Most cards to return (at most 100)
+     * @return How many cards are due (counted up to 1000), and the soonest-due of them
+     */
+    @GetMapping("/due")
+    public ResponseEntity<DueCards> getDueCards(@RequestParam(defaultValue = "20") int limit,
+                                                HttpServletRequest httpRequest) {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<SavedFlashcardRepository.ReviewCard> cards = savedFlashcardRepository.findDueCards(userId, now,
+                Limit.of(pageSize));
+        // A short page already holds every due card; otherwise count ids over the same index
+        long due = cards.size() < pageSize ? cards.size()
+                : savedFlashcardRepository.findDueIds(userId, now, Limit.of(MAX_COUNTED)).size();
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(new DueCards(due, cards));
+    }
+    
+    /**
+     * Records a review and reschedules the card
+     * @return The card's new schedule; 409 if it was graded concurrently (e.g. from another tab)
+     */
+    @PostMapping("/{id}/grade")
+    @Transactional
+    public ResponseEntity<ReviewSchedule> gradeCard(@PathVariable Long id, @RequestBody GradeRequest request,
+                                                    HttpServletRequest httpRequest) {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (request.getGrade() == null || request.getGrade() < ReviewSchedule.MIN_GRADE
+                || request.getGrade() > ReviewSchedule.MAX_GRADE) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        ReviewSchedule current = savedFlashcardRepository.findSchedule(id, userId).orElse(null);
+        if (current == null) {
+            return ResponseEntity.status(404).build();
+        }
+        ReviewSchedule next = current.next(request.getGrade(), LocalDateTime.now());
+        if (savedFlashcardRepository.updateSchedule(id, userId, current.dueAt(), next) == 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        log.atDebug().setMessage("Card graded")
+                .addKeyValue("userId", userId)
+                .addKeyValue("flashcardId", id)
+                .addKeyValue("grade", request.getGrade())
+                .addKeyValue("intervalDays", next.intervalDays())
+                .log();
+        return ResponseEntity.ok(next);
+    }
+    
+    public record DueCards(long due, List<SavedFlashcardRepository.ReviewCard> cards) {}
+    
+    public static class GradeRequest {
+        private Integer grade;
+        
+        public Integer getGrade() { return grade; }
+        public void setGrade(Integer grade) { this.grade = grade; }
+    }
+}
@@ -0,0 +1,47 @@
+package com.tossupflash.backend;
+
+import java.time.LocalDateTime;
+
+/**
+ * Spaced-repetition state of one saved card, advanced after each review by the SM-2 rule:
+ * a recalled card's interval goes 1 day, 6 days, then grows by the card's ease factor; a
+ * forgotten card starts over at 1 day. Ease moves with every grade and never drops below
+ * {@value #MIN_EASE}.
+ * @param repetitions Reviews in a row graded 3 or better
+ * @param intervalDays Days from the last review to dueAt
+ * @param ease Interval multiplier; lower for cards that are hard to recall
+ * @param dueAt When the card should next be reviewed
+ */
+public record ReviewSchedule(int repetitions, int intervalDays, double ease, LocalDateTime dueAt) {
+    
+    static final double INITIAL_EASE = 2.5;
+    static final double MIN_EASE = 1.3;
+    
+    public static final int MIN_GRADE = 0;
+    public static final int MAX_GRADE = 5;
+    /** Lowest grade that counts as recalled */
+    public static final int PASSING_GRADE = 3;
+    
+    /**
+     * @param grade 0 (no recall) to 5 (perfect recall)
+     * @param now Time of the review
+     * @return The schedule after this review
+     * @throws IllegalArgumentException if the grade is out of range
+     */
+    public ReviewSchedule next(int grade, LocalDateTime now) {
+        if (grade < MIN_GRADE || grade > MAX_GRADE) {
+            throw new IllegalArgumentException("Grade must be between " + MIN_GRADE + " and " + MAX_GRADE);
+        }
+        int miss = MAX_GRADE - grade;
+        double nextEase = Math.max(MIN_EASE, ease + 0.1 - miss * (0.08 + miss * 0.02));
+        if (grade < PASSING_GRADE) {
+            return new ReviewSchedule(0, 1, nextEase, now.plusDays(1));
+        }
+        int nextInterval = switch (repetitions) {
+            case 0 -> 1;
+            case 1 -> 6;
+            default -> (int) Math.round(intervalDays * ease);
+        };
+        return new ReviewSchedule(repetitions + 1, nextInterval, nextEase, now.plusDays(nextInterval));
+    }
+}
@@ -0,0 +1,174 @@
+package com.tossupflash.backend;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file holding write-behind saves that were acknowledged but are not yet in the
+ * database. A batch of saves is written and forced to disk together, so one fsync covers every
+ * save that arrived while the previous one ran.
+ * <p>
+ * Each record is {@code int length, int crc32, payload}; a record torn by a crash fails its
+ * length or checksum and is dropped, with everything after it, on replay. Text fields in the
+ * payload are length-prefixed UTF-8, so a card of any size fits. The file is emptied whenever
+ * the database has caught up with everything appended.
+ */
+class SaveJournal implements Closeable {
+    
+    private static final int RECORD_HEADER_BYTES = 8;
+    
+    private final FileChannel channel;
+    private long appended;
+    
+    private SaveJournal(FileChannel channel) {
+        this.channel = channel;
+    }
+    
+    /**
+     * Opens (or creates) a journal file
+     * @param path Journal location; missing parent directories are created
+     * @return The opened journal, positioned for appending after {@link #replay()}
+     * @throws IOException if the file cannot be opened
+     */
+    static SaveJournal open(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return new SaveJournal(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+    
+    /**
+     * Reads back the saves left by a previous run and cuts off a torn tail
+     * @return Saves in the order they were appended; some may already be in the database
+     */
+    synchronized List<SavedFlashcardWriteBehind.PendingSave> replay() throws IOException {
+        List<SavedFlashcardWriteBehind.PendingSave> saves = new ArrayList<>();
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        long position = 0;
+        long size = channel.size();
+        while (position + RECORD_HEADER_BYTES <= size) {
+            header.clear();
+            channel.read(header, position);
+            int length = header.getInt(0);
+            if (length <= 0 || position + RECORD_HEADER_BYTES + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            channel.read(payload, position + RECORD_HEADER_BYTES);
+            if (header.getInt(4) != checksum(payload.array())) {
+                break;
+            }
+            saves.add(decode(payload.array()));
+            position += RECORD_HEADER_BYTES + length;
+        }
+        channel.truncate(position);
+        channel.position(position);
+        appended = saves.size();
+        return saves;
+    }
+    
+    /**
+     * Appends saves and forces them to disk with a single fsync
+     * @param saves Saves to make durable
+     * @throws IOException if the write or the fsync fails; none of the saves may be acknowledged
+     */
+    synchronized void append(List<SavedFlashcardWriteBehind.PendingSave> saves) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(saves.size() * 1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (SavedFlashcardWriteBehind.PendingSave save : saves) {
+            byte[] payload = encode(save);
+            out.writeInt(payload.length);
+            out.writeInt(checksum(payload));
+            out.write(payload);
+        }
+        long start = channel.position();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // Leave no partial batch behind for replay to pick up
+            channel.truncate(start);
+            channel.position(start);
+            throw e;
+        }
+        appended += saves.size();
+    }
+    
+    /**
+     * Empties the journal once every appended save is in the database
+     * @param committed Saves committed to the database since the journal was opened, replayed ones included
+     */
+    synchronized void checkpoint(long committed) throws IOException {
+        if (committed >= appended && channel.position() > 0) {
+            channel.truncate(0);
+            channel.position(0);
+        }
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+    
+    private static byte[] encode(SavedFlashcardWriteBehind.PendingSave save) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + save.back().length());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, save.writeRef());
+            out.writeLong(save.userId());
+            writeString(out, save.savedAt().toString());
+            writeString(out, save.topic());
+            writeString(out, save.front());
+            writeString(out, save.back());
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static SavedFlashcardWriteBehind.PendingSave decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            String writeRef = readString(in);
+            long userId = in.readLong();
+            LocalDateTime savedAt = LocalDateTime.parse(readString(in));
+            String topic = readString(in);
+            String front = readString(in);
+            String back = readString(in);
+            return new SavedFlashcardWriteBehind.PendingSave(writeRef, userId, front, back, topic, savedAt);
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
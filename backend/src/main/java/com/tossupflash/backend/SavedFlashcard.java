@@ -1,10 +1,12 @@
 package com.tossupflash.backend;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "saved_flashcards")
+// The review queue reads a user's cards in due order: a range scan over this index
+@Table(name = "saved_flashcards", indexes = @Index(name = "idx_saved_flashcards_user_due", columnList = "user_id, due_at"))
 public class SavedFlashcard {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,6 +24,30 @@ public class SavedFlashcard {
     @Column(name = "saved_at", nullable = false)
     private LocalDateTime savedAt;
     
+    // Client-visible key of a write-behind save; makes journal replay idempotent
+    @Column(name = "write_ref", unique = true, length = 36)
+    private String writeRef;
+    
+    // Spaced-repetition schedule (SM-2), served by /reviews rather than with the saved list so
+    // grading a card does not invalidate the list's ETag
+    @JsonIgnore
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+    
+    @JsonIgnore
+    @Column(name = "interval_days", nullable = false)
+    private int intervalDays = 0;
+    
+    @JsonIgnore
+    @Column(nullable = false)
+    private double ease = ReviewSchedule.INITIAL_EASE;
+    
+    @JsonIgnore
+    @Column(nullable = false)
+    private int repetitions = 0;
+    
+    // Never serialized: it would recurse through User.savedFlashcards and expose the password hash
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -34,6 +60,8 @@ public class SavedFlashcard {
         this.topic = topic;
         this.user = user;
         this.savedAt = LocalDateTime.now();
+        // New cards are due for their first review right away
+        this.dueAt = savedAt;
     }
     
     // Getters and setters
@@ -77,6 +105,46 @@ public class SavedFlashcard {
         this.savedAt = savedAt;
     }
     
+    public String getWriteRef() {
+        return writeRef;
+    }
+    
+    public void setWriteRef(String writeRef) {
+        this.writeRef = writeRef;
+    }
+    
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+    
+    public void setDueAt(LocalDateTime dueAt) {
+        this.dueAt = dueAt;
+    }
+    
+    public int getIntervalDays() {
+        return intervalDays;
+    }
+    
+    public void setIntervalDays(int intervalDays) {
+        this.intervalDays = intervalDays;
+    }
+    
+    public double getEase() {
+        return ease;
+    }
+    
+    public void setEase(double ease) {
+        this.ease = ease;
+    }
+    
+    public int getRepetitions() {
+        return repetitions;
+    }
+    
+    public void setRepetitions(int repetitions) {
+        this.repetitions = repetitions;
+    }
+    
     public User getUser() {
         return user;
     }
@@ -0,0 +1,72 @@
+package com.tossupflash.backend;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a user's saved-collection change log. Every save and delete advances the user's
+ * saved-cards version by one and records the change under the new version, so clients holding
+ * version N can catch up with the changes after N instead of reloading the whole list.
+ */
+@Entity
+@Table(name = "saved_flashcard_changes", indexes = @Index(name = "idx_saved_flashcard_changes_user_version",
+        columnList = "user_id, version", unique = true))
+public class SavedFlashcardChange {
+    
+    public enum Kind { SAVED, DELETED }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // Plain column rather than a relation: the log is only ever read by user id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(nullable = false)
+    private long version;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Kind kind;
+    
+    @Column(name = "flashcard_id", nullable = false)
+    private Long flashcardId;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+    
+    public SavedFlashcardChange() {}
+    
+    public SavedFlashcardChange(Long userId, long version, Kind kind, Long flashcardId) {
+        this.userId = userId;
+        this.version = version;
+        this.kind = kind;
+        this.flashcardId = flashcardId;
+        this.changedAt = LocalDateTime.now();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    public Long getFlashcardId() {
+        return flashcardId;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
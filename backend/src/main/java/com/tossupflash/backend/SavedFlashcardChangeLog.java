@@ -0,0 +1,170 @@
+package com.tossupflash.backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user change feed for saved flashcards. Saves and deletes are recorded in the caller's
+ * transaction under consecutive versions of {@link User#getSavedCardsVersion()}; once that
+ * transaction commits the changes are published as a {@link Committed} event, which
+ * {@link SavedFlashcardSync} pushes to the user's open streams.
+ */
+@Component
+@Lazy(false)
+public class SavedFlashcardChangeLog {
+    
+    private static final Logger log = LoggerFactory.getLogger(SavedFlashcardChangeLog.class);
+    
+    /**
+     * One change as sent to clients; card is null for deletes and for saves of cards deleted since
+     */
+    public record Change(long version, SavedFlashcardChange.Kind kind, Long id, SavedFlashcard card) {}
+    
+    /**
+     * Changes after a client's version. When reset is set the log cannot bring the client up to
+     * date (too far behind, or the entries were pruned) and it should reload the whole list.
+     */
+    public record Feed(long version, boolean reset, List<Change> changes) {}
+    
+    /**
+     * Published inside the recording transaction; listeners act on it after commit
+     */
+    public record Committed(long userId, List<Change> changes) {}
+    
+    private final SavedFlashcardChangeRepository changeRepository;
+    private final SavedFlashcardRepository savedFlashcardRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher events;
+    private final PipelineMetrics metrics;
+    private final FlashcardProperties.Sync settings;
+    
+    public SavedFlashcardChangeLog(SavedFlashcardChangeRepository changeRepository,
+                                   SavedFlashcardRepository savedFlashcardRepository,
+                                   UserRepository userRepository,
+                                   ApplicationEventPublisher events,
+                                   PipelineMetrics metrics,
+                                   FlashcardProperties properties) {
+        this.changeRepository = changeRepository;
+        this.savedFlashcardRepository = savedFlashcardRepository;
+        this.userRepository = userRepository;
+        this.events = events;
+        this.metrics = metrics;
+        this.settings = properties.getSync();
+    }
+    
+    /**
+     * Records newly inserted cards of one user
+     * @param flashcards Saved cards, already assigned ids
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSaved(long userId, List<SavedFlashcard> flashcards) {
+        if (flashcards.isEmpty()) {
+            return;
+        }
+        long first = advance(userId, flashcards.size());
+        List<SavedFlashcardChange> entries = new ArrayList<>(flashcards.size());
+        List<Change> changes = new ArrayList<>(flashcards.size());
+        for (int i = 0; i < flashcards.size(); i++) {
+            SavedFlashcard flashcard = flashcards.get(i);
+            entries.add(new SavedFlashcardChange(userId, first + i, SavedFlashcardChange.Kind.SAVED, flashcard.getId()));
+            changes.add(new Change(first + i, SavedFlashcardChange.Kind.SAVED, flashcard.getId(), flashcard));
+        }
+        changeRepository.saveAll(entries);
+        events.publishEvent(new Committed(userId, changes));
+    }
+    
+    /**
+     * Records a deleted card
+     * @param flashcardId Id of the card that was deleted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(long userId, long flashcardId) {
+        long version = advance(userId, 1);
+        changeRepository.save(new SavedFlashcardChange(userId, version, SavedFlashcardChange.Kind.DELETED, flashcardId));
+        events.publishEvent(new Committed(userId,
+                List.of(new Change(version, SavedFlashcardChange.Kind.DELETED, flashcardId, null))));
+    }
+    
+    /**
+     * Reads the changes a client holding a version has not seen yet
+     * @param since The client's version (0 for an empty collection)
+     * @return The changes in version order, or a reset if the log no longer covers them
+     */
+    @Transactional(readOnly = true)
+    public Feed changesSince(long userId, long since) {
+        // Read before the log: anything committed in between only adds entries after it
+        long current = userRepository.findSavedCardsVersion(userId).orElse(0L);
+        List<SavedFlashcardChange> entries = changeRepository.findChangesSince(userId, since,
+                Limit.of(settings.getMaxChanges() + 1));
+        
+        boolean covered = entries.isEmpty()
+                ? since == current
+                : entries.get(0).getVersion() == since + 1 && entries.size() <= settings.getMaxChanges();
+        if (!covered) {
+            metrics.recordSyncFeed("reset");
+            return new Feed(current, true, List.of());
+        }
+        
+        List<Long> savedIds = entries.stream()
+                .filter(entry -> entry.getKind() == SavedFlashcardChange.Kind.SAVED)
+                .map(SavedFlashcardChange::getFlashcardId)
+                .toList();
+        Map<Long, SavedFlashcard> cards = savedIds.isEmpty() ? Map.of()
+                : savedFlashcardRepository.findAllById(savedIds).stream()
+                        .collect(Collectors.toMap(SavedFlashcard::getId, Function.identity()));
+        
+        // Every version is listed so clients can tell a gap from a quiet period; a card saved and
+        // deleted again has no card to send, and its later delete removes it anyway
+        List<Change> changes = new ArrayList<>(entries.size());
+        for (SavedFlashcardChange entry : entries) {
+            changes.add(new Change(entry.getVersion(), entry.getKind(), entry.getFlashcardId(),
+                    cards.get(entry.getFlashcardId())));
+        }
+        long version = entries.isEmpty() ? since : entries.get(entries.size() - 1).getVersion();
+        metrics.recordSyncFeed(entries.isEmpty() ? "current" : "delta");
+        return new Feed(version, false, changes);
+    }
+    
+    /**
+     * @return The user's current collection version (0 before the first change)
+     */
+    @Transactional(readOnly = true)
+    public long currentVersion(long userId) {
+        return userRepository.findSavedCardsVersion(userId).orElse(0L);
+    }
+    
+    /**
+     * Drops log entries older than the retention; clients further behind get a reset
+     */
+    @Scheduled(fixedDelayString = "${flashcards.sync.prune-interval:1h}")
+    @Transactional
+    public void prune() {
+        int pruned = changeRepository.deleteChangedBefore(LocalDateTime.now().minus(settings.getRetention()));
+        if (pruned > 0) {
+            log.atDebug().setMessage("Pruned saved-card change log")
+                    .addKeyValue("entries", pruned)
+                    .log();
+        }
+    }
+    
+    /**
+     * @return The first of count new consecutive versions
+     */
+    private long advance(long userId, int count) {
+        userRepository.advanceSavedCardsVersion(userId, count);
+        return userRepository.findSavedCardsVersion(userId).orElseThrow() - count + 1;
+    }
+}
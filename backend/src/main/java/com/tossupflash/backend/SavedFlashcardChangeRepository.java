@@ -0,0 +1,27 @@
+package com.tossupflash.backend;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SavedFlashcardChangeRepository extends JpaRepository<SavedFlashcardChange, Long> {
+    
+    /**
+     * A user's changes after a version, oldest first; a range scan of the (user_id, version) index
+     * @param userId Owner of the collection
+     * @param since Changes with a higher version are returned
+     * @param limit Most changes to return
+     */
+    @Query("select c from SavedFlashcardChange c where c.userId = :userId and c.version > :since"
+            + " order by c.userId, c.version")
+    List<SavedFlashcardChange> findChangesSince(Long userId, long since, Limit limit);
+    
+    @Modifying
+    @Query("delete from SavedFlashcardChange c where c.changedAt < :cutoff")
+    int deleteChangedBefore(LocalDateTime cutoff);
+}
@@ -1,69 +1,229 @@
 package com.tossupflash.backend;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/saved-flashcards")
 @CrossOrigin(origins = "http://localhost:5173")
 public class SavedFlashcardController {
     
+    private static final Logger log = LoggerFactory.getLogger(SavedFlashcardController.class);
+    
+    // Browsers may keep the list but must revalidate it with If-None-Match before reuse
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
+    // Collection version the list reflects; clients ask for changes after it
+    static final String VERSION_HEADER = "Saved-Cards-Version";
+    
     @Autowired
     private SavedFlashcardRepository savedFlashcardRepository;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private SavedFlashcardChangeLog changeLog;
+    
+    @Autowired
+    private SavedFlashcardSync sync;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    // Present only with flashcards.saves.write-behind=true
+    @Autowired(required = false)
+    private SavedFlashcardWriteBehind writeBehind;
+    
+    // Not @Transactional: the write-behind branch waits on a journal fsync and must not hold a
+    // connection meanwhile, so only the direct insert runs in a transaction
     @PostMapping
     public ResponseEntity<SavedFlashcard> saveFlashcard(@RequestBody SaveFlashcardRequest request, 
                                                        HttpServletRequest httpRequest) {
-        System.out.println("DEBUG: SaveFlashcard endpoint called");
-        System.out.println("DEBUG: Request URI: " + httpRequest.getRequestURI());
-        System.out.println("DEBUG: Authorization header: " + httpRequest.getHeader("Authorization"));
-        
         Long userId = (Long) httpRequest.getAttribute("userId");
-        System.out.println("DEBUG: UserId from request attribute: " + userId);
         
         if (userId == null) {
-            System.out.println("DEBUG: UserId is null, returning 401");
+            log.debug("Save rejected: no authenticated user id on request");
             return ResponseEntity.status(401).build();
         }
         
-        User user = userRepository.findById(userId).orElse(null);
-        System.out.println("DEBUG: User found: " + (user != null ? user.getUsername() : "null"));
-        if (user == null) {
-            System.out.println("DEBUG: User not found, returning 401");
-            return ResponseEntity.status(401).build();
+        if (writeBehind != null) {
+            // Durable in the journal; the row is written with the next batch
+            SavedFlashcard acknowledged = writeBehind.save(userId, request.getFront(), request.getBack(),
+                    request.getTopic());
+            if (acknowledged != null) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(acknowledged);
+            }
         }
         
-        SavedFlashcard flashcard = new SavedFlashcard(
-            request.getFront(), 
-            request.getBack(), 
-            request.getTopic(), 
-            user
-        );
-        System.out.println("DEBUG: About to save flashcard: " + request.getFront());
-        
-        SavedFlashcard saved = savedFlashcardRepository.save(flashcard);
-        System.out.println("DEBUG: Flashcard saved successfully with ID: " + saved.getId());
+        SavedFlashcard saved = transactionTemplate.execute(status -> {
+            User user = userRepository.findById(userId).orElse(null);
+            if (user == null) {
+                return null;
+            }
+            SavedFlashcard flashcard = savedFlashcardRepository.save(new SavedFlashcard(
+                request.getFront(), 
+                request.getBack(), 
+                request.getTopic(), 
+                user
+            ));
+            changeLog.recordSaved(userId, List.of(flashcard));
+            return flashcard;
+        });
+        if (saved == null) {
+            log.debug("Save rejected: user {} not found", userId);
+            return ResponseEntity.status(401).build();
+        }
+        log.atDebug().setMessage("Flashcard saved")
+                .addKeyValue("userId", userId)
+                .addKeyValue("flashcardId", saved.getId())
+                .addKeyValue("topic", request.getTopic())
+                .log();
         return ResponseEntity.ok(saved);
     }
     
     @GetMapping
-    public ResponseEntity<List<SavedFlashcard>> getSavedFlashcards(HttpServletRequest httpRequest) {
+    public ResponseEntity<List<SavedFlashcard>> getSavedFlashcards(HttpServletRequest httpRequest,
+                                                                   WebRequest webRequest) {
         Long userId = (Long) httpRequest.getAttribute("userId");
         if (userId == null) {
             return ResponseEntity.status(401).build();
         }
         
+        // Version is read before the list, so the list is never older than its ETag
+        Long version = userRepository.findSavedCardsVersion(userId).orElse(null);
+        if (version == null) {
+            return ResponseEntity.status(401).build();
+        }
+        // Pending saves are read before the rows: one committed in between is then in the rows
+        List<SavedFlashcard> pending = writeBehind != null ? writeBehind.pendingFor(userId) : List.of();
+        // Weak validator: it tracks the list's content, and Tomcat won't gzip strong-ETag responses
+        String etag = "W/\"" + userId + "-" + version + (pending.isEmpty() ? "" : "-" + pending.size()) + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            // Unchanged since the client's copy: skip the query and serialization
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE)
+                    .header(VERSION_HEADER, version.toString()).build();
+        }
+        
         List<SavedFlashcard> flashcards = savedFlashcardRepository.findByUserIdOrderBySavedAtDesc(userId);
-        return ResponseEntity.ok(flashcards);
+        if (!pending.isEmpty()) {
+            flashcards = withPending(pending, flashcards);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE)
+                .header(VERSION_HEADER, version.toString()).body(flashcards);
+    }
+    
+    /**
+     * Changes to the collection after a version the client holds, so it can apply a small delta
+     * instead of reloading the list
+     * @param since Version from the Saved-Cards-Version header or an earlier feed
+     * @return The changes, or reset=true when the client has to reload the whole list
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<SavedFlashcardChangeLog.Feed> getChanges(@RequestParam long since,
+                                                                   HttpServletRequest httpRequest) {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(changeLog.changesSince(userId, since));
+    }
+    
+    /**
+     * Server-sent events with the collection's changes: first those after the given version,
+     * then each committed save or delete as it happens
+     * @param since Version the client holds
+     */
+    @GetMapping(path = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestParam long since, HttpServletRequest httpRequest) {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(sync.subscribe(userId, since));
+    }
+    
+    /**
+     * Streams the user's whole collection as a file. Rows come off a database cursor and go
+     * straight to the response, so memory stays flat however many cards there are, and the
+     * header line reaches the client before the query has been fully read.
+     * @param format csv, tsv or anki
+     * @param gzip Whether to send the file gzipped (as a .gz download)
+     */
+    @GetMapping("/export")
+    @Transactional(readOnly = true)
+    public void exportFlashcards(@RequestParam(defaultValue = "csv") String format,
+                                 @RequestParam(defaultValue = "false") boolean gzip,
+                                 HttpServletRequest httpRequest, HttpServletResponse response) throws IOException {
+        Long userId = (Long) httpRequest.getAttribute("userId");
+        if (userId == null) {
+            response.setStatus(401);
+            return;
+        }
+        FlashcardExportFormat exportFormat = FlashcardExportFormat.parse(format).orElse(null);
+        if (exportFormat == null) {
+            response.setStatus(400);
+            return;
+        }
+        
+        String filename = "flashcards." + exportFormat.extension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : exportFormat.contentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        
+        long start = System.nanoTime();
+        long rows = 0;
+        OutputStream body = response.getOutputStream();
+        if (gzip) {
+            // Sync flush lets the header go out compressed before the rest of the rows
+            body = new GZIPOutputStream(body, 1 << 16, true);
+        }
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), 1 << 16);
+             Stream<SavedFlashcardRepository.ExportRow> cards = savedFlashcardRepository.streamExportRows(userId)) {
+            exportFormat.writeHeader(out);
+            out.flush();
+            for (Iterator<SavedFlashcardRepository.ExportRow> it = cards.iterator(); it.hasNext(); rows++) {
+                exportFormat.writeRow(out, it.next());
+            }
+        }
+        log.atDebug().setMessage("Flashcards exported")
+                .addKeyValue("userId", userId)
+                .addKeyValue("format", exportFormat)
+                .addKeyValue("rows", rows)
+                .addKeyValue("elapsedMs", (System.nanoTime() - start) / 1_000_000)
+                .log();
     }
     
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<Void> deleteFlashcard(@PathVariable Long id, HttpServletRequest httpRequest) {
         Long userId = (Long) httpRequest.getAttribute("userId");
         if (userId == null) {
@@ -77,9 +237,30 @@ public class SavedFlashcardController {
         }
         
         savedFlashcardRepository.deleteById(id);
+        changeLog.recordDeleted(userId, id);
         return ResponseEntity.ok().build();
     }
     
+    /**
+     * Puts pending saves ahead of the stored ones, skipping any committed since they were read
+     */
+    private static List<SavedFlashcard> withPending(List<SavedFlashcard> pending, List<SavedFlashcard> stored) {
+        Set<String> storedRefs = new HashSet<>();
+        for (SavedFlashcard flashcard : stored) {
+            if (flashcard.getWriteRef() != null) {
+                storedRefs.add(flashcard.getWriteRef());
+            }
+        }
+        List<SavedFlashcard> merged = new ArrayList<>(pending.size() + stored.size());
+        for (SavedFlashcard flashcard : pending) {
+            if (!storedRefs.contains(flashcard.getWriteRef())) {
+                merged.add(flashcard);
+            }
+        }
+        merged.addAll(stored);
+        return merged;
+    }
+    
     public static class SaveFlashcardRequest {
         private String front;
         private String back;
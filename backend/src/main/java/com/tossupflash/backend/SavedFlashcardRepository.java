@@ -1,11 +1,75 @@
 package com.tossupflash.backend;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface SavedFlashcardRepository extends JpaRepository<SavedFlashcard, Long> {
     List<SavedFlashcard> findByUserIdOrderBySavedAtDesc(Long userId);
     void deleteByIdAndUserId(Long id, Long userId);
-} 
\ No newline at end of file
+    
+    @Query("select f.writeRef from SavedFlashcard f where f.writeRef in :writeRefs")
+    Set<String> findExistingWriteRefs(Collection<String> writeRefs);
+    
+    /**
+     * Streams a user's cards for export through a forward-only cursor. Rows are plain
+     * projections rather than managed entities, so the persistence context stays empty however
+     * large the collection is. Must be consumed and closed inside a transaction.
+     * @param userId Owner of the cards
+     * @return Cards, most recently saved first
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.tossupflash.backend.SavedFlashcardRepository$ExportRow(f.front, f.back, f.topic, f.savedAt)"
+            + " from SavedFlashcard f where f.user.id = :userId order by f.savedAt desc, f.id desc")
+    Stream<ExportRow> streamExportRows(Long userId);
+    
+    /**
+     * Cards due for review, soonest first; a range scan of idx_saved_flashcards_user_due
+     * @param userId Owner of the cards
+     * @param now Cards due at or before this time are returned
+     * @param limit Most cards to return
+     */
+    @Query("select new com.tossupflash.backend.SavedFlashcardRepository$ReviewCard(f.id, f.front, f.back, f.topic,"
+            + " f.dueAt, f.intervalDays, f.ease, f.repetitions)"
+            + " from SavedFlashcard f where f.user.id = :userId and f.dueAt <= :now order by f.user.id, f.dueAt")
+    List<ReviewCard> findDueCards(Long userId, LocalDateTime now, Limit limit);
+    
+    // Ordering by the full index key lets the database stop after the limit instead of
+    // sorting every due card (H2 only recognizes index order that way)
+    @Query("select f.id from SavedFlashcard f where f.user.id = :userId and f.dueAt <= :now order by f.user.id, f.dueAt")
+    List<Long> findDueIds(Long userId, LocalDateTime now, Limit limit);
+    
+    @Query("select new com.tossupflash.backend.ReviewSchedule(f.repetitions, f.intervalDays, f.ease, f.dueAt)"
+            + " from SavedFlashcard f where f.id = :id and f.user.id = :userId")
+    Optional<ReviewSchedule> findSchedule(Long id, Long userId);
+    
+    /**
+     * Stores a card's new schedule, unless the card was graded since previousDueAt was read
+     * @return 1 if updated, 0 if the card changed in between
+     */
+    @Modifying
+    @Query("update SavedFlashcard f set f.repetitions = :#{#next.repetitions()}, f.intervalDays = :#{#next.intervalDays()},"
+            + " f.ease = :#{#next.ease()}, f.dueAt = :#{#next.dueAt()}"
+            + " where f.id = :id and f.user.id = :userId and f.dueAt = :previousDueAt")
+    int updateSchedule(Long id, Long userId, LocalDateTime previousDueAt, ReviewSchedule next);
+    
+    record ReviewCard(Long id, String front, String back, String topic, LocalDateTime dueAt, int intervalDays,
+                      double ease, int repetitions) {}
+    
+    record ExportRow(String front, String back, String topic, LocalDateTime savedAt) {}
+}
@@ -0,0 +1,185 @@
+package com.tossupflash.backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event streams of saved-collection changes. Each stream starts with the changes
+ * after the client's version and then receives every committed change of its user as a
+ * "changes" event (same shape as {@link SavedFlashcardChangeLog.Feed}), so open tabs and devices
+ * stay current without polling the list.
+ * <p>
+ * Events are written from a single sender thread, never from the committing request, so a slow
+ * client cannot hold up saves. Versions let clients drop duplicates and spot gaps.
+ * <p>
+ * A stream may be open on a different node than the one that committed. Commits are announced
+ * on a {@link RemoteCache} channel, and the other nodes read the new changes from the log for
+ * their own streams. The broadcast is best effort, so heartbeats also carry the current version
+ * (as a "changes" event with no changes), and a client that sees it jump asks for the gap.
+ */
+@Component
+@Lazy(false)
+public class SavedFlashcardSync implements DisposableBean {
+    
+    private static final Logger log = LoggerFactory.getLogger(SavedFlashcardSync.class);
+    
+    // Messages are "node userId firstVersion"
+    static final String COMMIT_CHANNEL = "flashcards:sync:committed";
+    
+    private final String nodeId = UUID.randomUUID().toString();
+    private final SavedFlashcardChangeLog changeLog;
+    private final RemoteCache remote;
+    private final FlashcardProperties.Sync settings;
+    private final Map<Long, Deque<SseEmitter>> streamsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger streamCount = new AtomicInteger();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "saved-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public SavedFlashcardSync(SavedFlashcardChangeLog changeLog, RemoteCache remote, FlashcardProperties properties,
+                              PipelineMetrics metrics) {
+        this.changeLog = changeLog;
+        this.remote = remote;
+        this.settings = properties.getSync();
+        metrics.bindSyncStreams(streamCount::get);
+        remote.subscribe(COMMIT_CHANNEL, this::onRemoteCommit);
+    }
+    
+    /**
+     * Opens a stream for a user, first sending what changed after the client's version
+     * @param since The client's version
+     * @return The stream; the user's oldest stream is closed if they already have the maximum
+     */
+    public SseEmitter subscribe(long userId, long since) {
+        SseEmitter emitter = new SseEmitter(settings.getStreamTimeout().toMillis());
+        // Registered before the catch-up read, so a change committed in between is sent at
+        // least once (clients skip versions they already have)
+        register(userId, emitter);
+        send(userId, emitter, changeLog.changesSince(userId, since));
+        return emitter;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommitted(SavedFlashcardChangeLog.Committed committed) {
+        List<SavedFlashcardChangeLog.Change> changes = committed.changes();
+        SavedFlashcardChangeLog.Feed feed = new SavedFlashcardChangeLog.Feed(
+                changes.get(changes.size() - 1).version(), false, changes);
+        String announcement = nodeId + " " + committed.userId() + " " + changes.get(0).version();
+        sender.execute(() -> {
+            Deque<SseEmitter> streams = streamsByUser.get(committed.userId());
+            if (streams != null) {
+                streams.forEach(emitter -> send(committed.userId(), emitter, feed));
+            }
+            try {
+                remote.publish(COMMIT_CHANNEL, announcement);
+            } catch (RuntimeException e) {
+                // Streams on other nodes pick the change up from their next heartbeat
+                log.debug("Could not announce saved-card changes of user {}: {}", committed.userId(), e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Keeps idle streams from being closed by proxies, finds the ones whose client is gone, and
+     * tells clients the current version in case a change announcement was lost
+     */
+    @Scheduled(fixedDelayString = "${flashcards.sync.heartbeat:25s}")
+    public void heartbeat() {
+        sender.execute(() -> streamsByUser.forEach((userId, streams) -> {
+            SavedFlashcardChangeLog.Feed current = new SavedFlashcardChangeLog.Feed(
+                    changeLog.currentVersion(userId), false, List.of());
+            streams.forEach(emitter -> send(userId, emitter, current));
+        }));
+    }
+    
+    /**
+     * Sends changes committed on another node to this node's streams of the same user
+     */
+    private void onRemoteCommit(String announcement) {
+        String[] parts = announcement.split(" ");
+        if (parts.length != 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+        long userId = Long.parseLong(parts[1]);
+        long since = Long.parseLong(parts[2]) - 1;
+        if (!streamsByUser.containsKey(userId)) {
+            return;
+        }
+        sender.execute(() -> {
+            Deque<SseEmitter> streams = streamsByUser.get(userId);
+            if (streams != null) {
+                SavedFlashcardChangeLog.Feed feed = changeLog.changesSince(userId, since);
+                streams.forEach(emitter -> send(userId, emitter, feed));
+            }
+        });
+    }
+    
+    @Override
+    public void destroy() {
+        sender.shutdownNow();
+        streamsByUser.values().forEach(streams -> streams.forEach(SseEmitter::complete));
+    }
+    
+    private void register(long userId, SseEmitter emitter) {
+        Deque<SseEmitter> streams = streamsByUser.compute(userId, (id, existing) -> {
+            Deque<SseEmitter> userStreams = existing != null ? existing : new ConcurrentLinkedDeque<>();
+            userStreams.addLast(emitter);
+            return userStreams;
+        });
+        streamCount.incrementAndGet();
+        emitter.onCompletion(() -> unregister(userId, emitter));
+        // Completing on timeout ends the stream cleanly; the client reconnects with its version
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unregister(userId, emitter));
+        while (streams.size() > settings.getMaxStreamsPerUser()) {
+            SseEmitter oldest = streams.peekFirst();
+            if (oldest == null || oldest == emitter) {
+                break;
+            }
+            unregister(userId, oldest);
+            oldest.complete();
+        }
+    }
+    
+    private void unregister(long userId, SseEmitter emitter) {
+        streamsByUser.computeIfPresent(userId, (id, streams) -> {
+            if (streams.remove(emitter)) {
+                streamCount.decrementAndGet();
+            }
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+    
+    private void send(long userId, SseEmitter emitter, SavedFlashcardChangeLog.Feed feed) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("changes")
+                    .id(Long.toString(feed.version()))
+                    .data(feed, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the container completes the emitter
+            log.debug("Dropping saved-card stream of user {}: {}", userId, e.getMessage());
+            unregister(userId, emitter);
+        }
+    }
+}
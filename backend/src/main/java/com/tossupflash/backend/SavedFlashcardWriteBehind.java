@@ -0,0 +1,327 @@
+package com.tossupflash.backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind path for saved flashcards (flashcards.saves.write-behind=true). A save is
+ * acknowledged once it is in the {@link SaveJournal}; a second thread then writes saves to the
+ * database in batches, one transaction per batch. Until then the save is served to its owner
+ * from an in-memory overlay, so a reload right after saving still shows the card.
+ * <p>
+ * Each save carries a write_ref, stored with the row, so replaying the journal after a crash
+ * never inserts a card twice.
+ */
+@Component
+@ConditionalOnProperty(name = "flashcards.saves.write-behind", havingValue = "true")
+public class SavedFlashcardWriteBehind implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(SavedFlashcardWriteBehind.class);
+    
+    private static final long POLL_MS = 100;
+    private static final long RETRY_DELAY_MS = 1000;
+    
+    /**
+     * A save that has been acknowledged but may not be in the database yet
+     */
+    record PendingSave(String writeRef, long userId, String front, String back, String topic,
+                       LocalDateTime savedAt) {
+        
+        SavedFlashcard toFlashcard(User user) {
+            SavedFlashcard flashcard = new SavedFlashcard(front, back, topic, user);
+            flashcard.setSavedAt(savedAt);
+            flashcard.setDueAt(savedAt);
+            flashcard.setWriteRef(writeRef);
+            return flashcard;
+        }
+    }
+    
+    private record Request(PendingSave save, CompletableFuture<Void> journaled) {}
+    
+    private final SavedFlashcardRepository savedFlashcardRepository;
+    private final UserRepository userRepository;
+    private final SavedFlashcardChangeLog changeLog;
+    private final TransactionTemplate transactionTemplate;
+    private final PipelineMetrics metrics;
+    private final Path journalPath;
+    private final int maxBatch;
+    
+    private final BlockingQueue<Request> incoming;
+    private final BlockingQueue<PendingSave> uncommitted = new LinkedBlockingQueue<>();
+    private final Map<Long, Deque<PendingSave>> pendingByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    
+    private SaveJournal journal;
+    private Thread journalWriter;
+    private Thread databaseWriter;
+    private volatile boolean running;
+    private long committed;
+    
+    public SavedFlashcardWriteBehind(SavedFlashcardRepository savedFlashcardRepository,
+                                     UserRepository userRepository,
+                                     SavedFlashcardChangeLog changeLog,
+                                     PlatformTransactionManager transactionManager,
+                                     FlashcardProperties properties,
+                                     PipelineMetrics metrics) {
+        this.savedFlashcardRepository = savedFlashcardRepository;
+        this.userRepository = userRepository;
+        this.changeLog = changeLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.metrics = metrics;
+        this.journalPath = Path.of(properties.getSaves().getJournal());
+        this.maxBatch = Math.max(1, properties.getSaves().getMaxBatch());
+        this.incoming = new LinkedBlockingQueue<>(Math.max(1, properties.getSaves().getQueueCapacity()));
+        metrics.bindSaveQueueDepth(pendingCount::get);
+    }
+    
+    /**
+     * Acknowledges a save once it is durable in the journal
+     * @param userId Owner of the card (already authenticated; the user row is not read)
+     * @return The card as it will be stored, with a write_ref and no id yet; null if write-behind
+     *         cannot take it (stopped, queue full, journal failure) and the caller should insert directly
+     */
+    public SavedFlashcard save(long userId, String front, String back, String topic) {
+        if (front == null || back == null || topic == null) {
+            return null;
+        }
+        PendingSave save = new PendingSave(UUID.randomUUID().toString(), userId, front, back, topic,
+                LocalDateTime.now());
+        Request request = new Request(save, new CompletableFuture<>());
+        // Under the lock stop() takes, so nothing is queued after the journal writer's last drain
+        synchronized (incoming) {
+            if (!running || !incoming.offer(request)) {
+                return null;
+            }
+        }
+        try {
+            request.journaled().join();
+        } catch (CompletionException e) {
+            return null;
+        }
+        return save.toFlashcard(null);
+    }
+    
+    /**
+     * @param userId Owner of the cards
+     * @return The user's acknowledged saves not yet committed to the database, newest first
+     */
+    public List<SavedFlashcard> pendingFor(long userId) {
+        Deque<PendingSave> pending = pendingByUser.get(userId);
+        if (pending == null) {
+            return List.of();
+        }
+        List<SavedFlashcard> flashcards = new ArrayList<>();
+        for (PendingSave save : pending) {
+            flashcards.add(save.toFlashcard(null));
+        }
+        return flashcards;
+    }
+    
+    @Override
+    public void start() {
+        try {
+            journal = SaveJournal.open(journalPath);
+            List<PendingSave> replayed = journal.replay();
+            if (!replayed.isEmpty()) {
+                log.info("Replaying {} journaled saves from {}", replayed.size(), journalPath);
+            }
+            replayed.forEach(this::addPending);
+            uncommitted.addAll(replayed);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open save journal " + journalPath, e);
+        }
+        running = true;
+        journalWriter = new Thread(this::writeJournal, "save-journal");
+        databaseWriter = new Thread(this::writeDatabase, "save-writer");
+        journalWriter.start();
+        databaseWriter.start();
+    }
+    
+    @Override
+    public void stop() {
+        synchronized (incoming) {
+            running = false;
+        }
+        try {
+            journalWriter.join();
+            // Bounded: anything still uncommitted is replayed from the journal on the next start
+            databaseWriter.join(10_000);
+            journal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Closing save journal failed: {}", e.getMessage());
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void writeJournal() {
+        List<Request> batch = new ArrayList<>();
+        List<PendingSave> saves = new ArrayList<>();
+        while (running || !incoming.isEmpty()) {
+            try {
+                Request first = incoming.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                incoming.drainTo(batch, maxBatch - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            batch.forEach(request -> saves.add(request.save()));
+            
+            long start = System.nanoTime();
+            try {
+                journal.append(saves);
+                metrics.recordSaveJournalSync(saves.size(), System.nanoTime() - start);
+                // Visible to reads before the acknowledgement, and before the database writer can remove it
+                saves.forEach(this::addPending);
+                uncommitted.addAll(saves);
+                batch.forEach(request -> request.journaled().complete(null));
+            } catch (IOException e) {
+                log.error("Save journal append failed, falling back to direct inserts: {}", e.getMessage());
+                batch.forEach(request -> request.journaled().completeExceptionally(e));
+            }
+            batch.clear();
+            saves.clear();
+        }
+    }
+    
+    private void writeDatabase() {
+        List<PendingSave> batch = new ArrayList<>();
+        while (running || !uncommitted.isEmpty() || journalWriter.isAlive()) {
+            if (batch.isEmpty()) {
+                try {
+                    PendingSave first = uncommitted.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    uncommitted.drainTo(batch, maxBatch - 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            
+            long start = System.nanoTime();
+            try {
+                String outcome = commit(batch);
+                metrics.recordSaveFlush(batch.size(), outcome, System.nanoTime() - start);
+            } catch (RuntimeException e) {
+                // Database unavailable: keep the batch and try again; the journal still holds it
+                metrics.recordSaveFlush(batch.size(), "failed", System.nanoTime() - start);
+                log.warn("Writing {} saves failed, retrying: {}", batch.size(), e.getMessage());
+                if (!running) {
+                    return;
+                }
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                continue;
+            }
+            
+            batch.forEach(this::removePending);
+            committed += batch.size();
+            batch.clear();
+            try {
+                journal.checkpoint(committed);
+            } catch (IOException e) {
+                log.warn("Save journal checkpoint failed: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Writes a batch in one transaction; if a save in it is rejected (its user no longer
+     * exists), the rest are written one at a time and the rejected ones dropped
+     * @return committed, or split when the batch had to be written save by save
+     */
+    private String commit(List<PendingSave> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+            return "committed";
+        } catch (DataIntegrityViolationException e) {
+            for (PendingSave save : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(save)));
+                } catch (DataIntegrityViolationException rejected) {
+                    log.atError().setMessage("Dropping journaled save the database rejects")
+                            .addKeyValue("userId", save.userId())
+                            .addKeyValue("writeRef", save.writeRef())
+                            .addKeyValue("error", rejected.getMostSpecificCause().getMessage())
+                            .log();
+                }
+            }
+            return "split";
+        }
+    }
+    
+    private void insert(List<PendingSave> saves) {
+        List<String> writeRefs = saves.stream().map(PendingSave::writeRef).toList();
+        // Replayed saves may have been committed just before a crash
+        Set<String> existing = savedFlashcardRepository.findExistingWriteRefs(writeRefs);
+        Map<Long, List<SavedFlashcard>> byUser = new LinkedHashMap<>();
+        for (PendingSave save : saves) {
+            if (!existing.contains(save.writeRef())) {
+                byUser.computeIfAbsent(save.userId(), id -> new ArrayList<>())
+                        .add(save.toFlashcard(userRepository.getReferenceById(save.userId())));
+            }
+        }
+        byUser.forEach((userId, flashcards) -> {
+            savedFlashcardRepository.saveAll(flashcards);
+            changeLog.recordSaved(userId, flashcards);
+        });
+    }
+    
+    private void addPending(PendingSave save) {
+        pendingByUser.compute(save.userId(), (id, pending) -> {
+            Deque<PendingSave> saves = pending != null ? pending : new ConcurrentLinkedDeque<>();
+            saves.addFirst(save);
+            return saves;
+        });
+        pendingCount.incrementAndGet();
+    }
+    
+    private void removePending(PendingSave save) {
+        pendingByUser.computeIfPresent(save.userId(), (id, pending) -> {
+            pending.remove(save);
+            return pending.isEmpty() ? null : pending;
+        });
+        pendingCount.decrementAndGet();
+    }
+}
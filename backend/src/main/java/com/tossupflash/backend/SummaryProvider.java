@@ -0,0 +1,21 @@
+package com.tossupflash.backend;
+
+/**
+ * Source of the card-back text for a Wikipedia article
+ */
+public interface SummaryProvider {
+    
+    /**
+     * @param title Article title (underscored), as resolved by the title index
+     * @return First two sentences of the article summary, "" if there is no such article (worth
+     *         caching), or null if the lookup failed for another reason
+     */
+    String summary(String title);
+    
+    /**
+     * @return Whether lookups go over the network, and so are paced and spread across threads
+     */
+    default boolean isRemote() {
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+package com.tossupflash.backend;
+
+/**
+ * Trims Wikipedia extracts down to what goes on the back of a card. Plain JDK code, shared by
+ * the live API provider and the offline abstracts ingest.
+ */
+public final class SummaryText {
+    
+    private SummaryText() {
+    }
+    
+    /**
+     * Extracts the first two sentences from a text summary
+     * @param summary The full Wikipedia summary text
+     * @return First two sentences, or the full text if less than two sentences exist
+     */
+    public static String firstTwoSentences(String summary) {
+        if (summary == null || summary.trim().isEmpty()) {
+            return "";
+        }
+        
+        // Split by sentence-ending punctuation, but be careful with abbreviations
+        String[] sentences = summary.split("(?<=[.!?])\\s+");
+        
+        StringBuilder result = new StringBuilder();
+        int sentenceCount = 0;
+        
+        for (String sentence : sentences) {
+            if (sentenceCount >= 2) {
+                break;
+            }
+            
+            // Skip very short fragments (likely abbreviations)
+            if (sentence.trim().length() > 10) {
+                if (result.length() > 0) {
+                    result.append(" ");
+                }
+                result.append(sentence.trim());
+                sentenceCount++;
+            }
+        }
+        
+        // If we couldn't get two good sentences, return the original (up to 300 chars)
+        if (sentenceCount == 0) {
+            return summary.length() > 300 ? summary.substring(0, 300) + "..." : summary;
+        }
+        
+        return result.toString();
+    }
+}
@@ -0,0 +1,189 @@
+package com.tossupflash.backend;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Maps candidate phrases to Wikipedia article titles without any network call. The index is a
+ * sorted-string table built offline by {@link TitleIndexBuilder} and memory-mapped read-only,
+ * so it costs page cache rather than heap and is shared by all request threads.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ *   int magic, int version, int entryCount, int blockCount
+ *   int[blockCount]  offset of each block, relative to the start of the entries
+ *   entries          per block of {@value #BLOCK_SIZE}, sorted by key bytes:
+ *                    varint sharedPrefix, varint suffixLength, suffix, varint titleLength, title
+ * </pre>
+ * Keys are front-coded against the previous key in their block; the first key of each block is
+ * stored whole so blocks can be binary searched.
+ */
+public class TitleIndex {
+    
+    static final int MAGIC = 0x54544c58; // "TTLX"
+    static final int VERSION = 1;
+    static final int BLOCK_SIZE = 16;
+    static final int HEADER_BYTES = 16;
+    
+    // Words the phrase extractor never emits, so titles are keyed without them
+    private static final Set<String> IGNORED_WORDS = Set.of("the", "and");
+    
+    private final ByteBuffer file;
+    private final int entryCount;
+    private final int blockCount;
+    private final int entriesStart;
+    
+    private TitleIndex(ByteBuffer file) {
+        this.file = file;
+        if (file == null) {
+            this.entryCount = 0;
+            this.blockCount = 0;
+            this.entriesStart = 0;
+            return;
+        }
+        if (file.getInt(0) != MAGIC || file.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a title index (version " + VERSION + ")");
+        }
+        this.entryCount = file.getInt(8);
+        this.blockCount = file.getInt(12);
+        this.entriesStart = HEADER_BYTES + 4 * blockCount;
+    }
+    
+    /**
+     * Memory-maps an index file
+     * @param path File written by {@link TitleIndexBuilder}
+     * @return The opened index
+     * @throws IOException if the file cannot be read
+     */
+    public static TitleIndex open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new TitleIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+    
+    /**
+     * @return An index that resolves every phrase to its underscored form, as before the index existed
+     */
+    public static TitleIndex passThrough() {
+        return new TitleIndex(null);
+    }
+    
+    /**
+     * Resolves a phrase to the Wikipedia title to request
+     * @param phrase Candidate phrase, e.g. "Treaty Versailles"
+     * @return The article title (underscored), or empty if Wikipedia has no matching article
+     */
+    public Optional<String> resolve(String phrase) {
+        if (file == null) {
+            return Optional.of(phrase.replace(" ", "_"));
+        }
+        byte[] key = normalize(phrase).getBytes(StandardCharsets.UTF_8);
+        if (key.length == 0 || blockCount == 0) {
+            return Optional.empty();
+        }
+        
+        // Last block whose first key is <= the wanted key
+        int low = 0;
+        int high = blockCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Arrays.compareUnsigned(firstKey(mid), key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high < 0 ? Optional.empty() : scanBlock(high, key);
+    }
+    
+    /**
+     * @return Number of keys in the index (0 for a pass-through index)
+     */
+    public int size() {
+        return entryCount;
+    }
+    
+    public boolean isPassThrough() {
+        return file == null;
+    }
+    
+    private byte[] firstKey(int block) {
+        ByteBuffer cursor = cursorAt(block);
+        readVarint(cursor); // shared prefix, always 0 at a block start
+        byte[] key = new byte[readVarint(cursor)];
+        cursor.get(key);
+        return key;
+    }
+    
+    private Optional<String> scanBlock(int block, byte[] wanted) {
+        ByteBuffer cursor = cursorAt(block);
+        int entries = Math.min(BLOCK_SIZE, entryCount - block * BLOCK_SIZE);
+        byte[] key = new byte[0];
+        for (int i = 0; i < entries; i++) {
+            int shared = readVarint(cursor);
+            byte[] next = Arrays.copyOf(key, shared + readVarint(cursor));
+            cursor.get(next, shared, next.length - shared);
+            key = next;
+            byte[] title = new byte[readVarint(cursor)];
+            cursor.get(title);
+            
+            int comparison = Arrays.compareUnsigned(key, wanted);
+            if (comparison == 0) {
+                return Optional.of(new String(title, StandardCharsets.UTF_8));
+            }
+            if (comparison > 0) {
+                break;
+            }
+        }
+        return Optional.empty();
+    }
+    
+    private ByteBuffer cursorAt(int block) {
+        // Absolute reads on a duplicate keep the shared mapping safe for concurrent use
+        ByteBuffer cursor = file.duplicate();
+        cursor.position(entriesStart + file.getInt(HEADER_BYTES + 4 * block));
+        return cursor;
+    }
+    
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+    
+    /**
+     * Key under which both titles and phrases are stored: ASCII letters only, lower case, with
+     * the short connecting words the phrase extractor drops ("Treaty_of_Versailles" and
+     * "Treaty Versailles" share the key "treaty versailles")
+     * @param text A title or phrase
+     * @return The normalized key, empty if nothing is left
+     */
+    static String normalize(String text) {
+        StringBuilder key = new StringBuilder(text.length());
+        for (String word : text.split("[\\s_]+")) {
+            String letters = word.replaceAll("[^a-zA-Z]", "").toLowerCase(Locale.ROOT);
+            if (letters.length() < 3 || IGNORED_WORDS.contains(letters)) {
+                continue;
+            }
+            if (key.length() > 0) {
+                key.append(' ');
+            }
+            key.append(letters);
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,169 @@
+package com.tossupflash.backend;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Offline builder for {@link TitleIndex}. Uses only the JDK so it can run straight from the
+ * plain jar without the Spring context:
+ * <pre>
+ *   java -Xmx6g -cp target/backend-0.0.1-SNAPSHOT.jar com.tossupflash.backend.TitleIndexBuilder \
+ *       enwiki-latest-all-titles-in-ns0.gz [redirects.tsv.gz] titles.idx
+ * </pre>
+ * The titles file is one underscored title per line (the Wikimedia all-titles-in-ns0 dump; its
+ * "page_title" header line is skipped). The optional redirects file has "from&lt;TAB&gt;to" lines
+ * and points redirect titles at their target article. Either file may be gzipped.
+ */
+public class TitleIndexBuilder {
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: TitleIndexBuilder <titles[.gz]> [redirects.tsv[.gz]] <output>");
+            System.exit(2);
+        }
+        Path titles = Path.of(args[0]);
+        Path redirects = args.length == 3 ? Path.of(args[1]) : null;
+        Path output = Path.of(args[args.length - 1]);
+        
+        long start = System.nanoTime();
+        int keys = build(titles, redirects, output);
+        System.out.printf("Wrote %,d keys to %s (%,d bytes) in %d ms%n", keys, output, Files.size(output),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    /**
+     * Builds an index file from a title list and optional redirects
+     * @return Number of keys written
+     */
+    public static int build(Path titles, Path redirects, Path output) throws IOException {
+        Map<String, String> redirectTargets = new HashMap<>();
+        if (redirects != null) {
+            try (BufferedReader reader = open(redirects)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int tab = line.indexOf('\t');
+                    if (tab > 0 && tab < line.length() - 1) {
+                        redirectTargets.put(underscored(line.substring(0, tab)), underscored(line.substring(tab + 1)));
+                    }
+                }
+            }
+        }
+        
+        Map<String, Choice> byKey = new HashMap<>();
+        try (BufferedReader reader = open(titles)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String title = underscored(line);
+                if (title.isEmpty() || title.equals("page_title")) {
+                    continue;
+                }
+                String target = redirectTargets.get(title);
+                Choice choice = target != null ? new Choice(target, 1) : new Choice(title, 0);
+                byKey.merge(TitleIndex.normalize(title), choice, Choice::better);
+            }
+        }
+        
+        List<byte[][]> entries = new ArrayList<>(byKey.size());
+        byKey.forEach((key, choice) -> {
+            if (!key.isEmpty()) {
+                entries.add(new byte[][] {
+                        key.getBytes(StandardCharsets.UTF_8), choice.title().getBytes(StandardCharsets.UTF_8)});
+            }
+        });
+        byKey.clear();
+        entries.sort((a, b) -> Arrays.compareUnsigned(a[0], b[0]));
+        
+        write(entries, output);
+        return entries.size();
+    }
+    
+    static void write(List<byte[][]> sortedEntries, Path output) throws IOException {
+        int blockCount = (sortedEntries.size() + TitleIndex.BLOCK_SIZE - 1) / TitleIndex.BLOCK_SIZE;
+        int[] blockOffsets = new int[blockCount];
+        ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+        
+        byte[] previous = new byte[0];
+        for (int i = 0; i < sortedEntries.size(); i++) {
+            byte[] key = sortedEntries.get(i)[0];
+            byte[] title = sortedEntries.get(i)[1];
+            int shared = 0;
+            if (i % TitleIndex.BLOCK_SIZE == 0) {
+                blockOffsets[i / TitleIndex.BLOCK_SIZE] = entryBytes.size();
+            } else {
+                shared = Arrays.mismatch(previous, key);
+                shared = shared < 0 ? key.length : Math.min(shared, key.length);
+            }
+            writeVarint(entryBytes, shared);
+            writeVarint(entryBytes, key.length - shared);
+            entryBytes.write(key, shared, key.length - shared);
+            writeVarint(entryBytes, title.length);
+            entryBytes.write(title);
+            previous = key;
+        }
+        
+        Path temp = Files.createTempFile(output.toAbsolutePath().getParent(), "titles", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+            out.writeInt(TitleIndex.MAGIC);
+            out.writeInt(TitleIndex.VERSION);
+            out.writeInt(sortedEntries.size());
+            out.writeInt(blockCount);
+            for (int offset : blockOffsets) {
+                out.writeInt(offset);
+            }
+            entryBytes.writeTo(out);
+        }
+        // Running servers map the old file; replacing it never leaves a half-written index behind
+        Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+    
+    private static BufferedReader open(Path path) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        if (path.getFileName().toString().endsWith(".gz")) {
+            in = new GZIPInputStream(in, 1 << 16);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+    }
+    
+    private static String underscored(String title) {
+        return title.trim().replace(' ', '_');
+    }
+    
+    /**
+     * Canonical title for a key; articles win over redirects, then the shorter title
+     */
+    private record Choice(String title, int rank) {
+        
+        static Choice better(Choice a, Choice b) {
+            if (a.rank != b.rank) {
+                return a.rank < b.rank ? a : b;
+            }
+            if (a.title.length() != b.title.length()) {
+                return a.title.length() < b.title.length() ? a : b;
+            }
+            return a.title.compareTo(b.title) <= 0 ? a : b;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.tossupflash.backend;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@CrossOrigin(origins = "*")
+public class TopicController {
+    
+    // Short enough that a rebuilt index shows up quickly, long enough to absorb retyping
+    private static final Duration SUGGESTION_MAX_AGE = Duration.ofMinutes(1);
+    
+    private final TopicSuggestionIndex topicSuggestionIndex;
+    
+    public TopicController(TopicSuggestionIndex topicSuggestionIndex) {
+        this.topicSuggestionIndex = topicSuggestionIndex;
+    }
+    
+    @GetMapping("/topics/suggest")
+    public ResponseEntity<List<String>> suggest(@RequestParam String prefix,
+                                                @RequestParam(defaultValue = "8") int limit) {
+        List<String> suggestions = topicSuggestionIndex.suggest(prefix, limit);
+        return ResponseEntity.ok().cacheControl(CacheControl.maxAge(SUGGESTION_MAX_AGE)).body(suggestions);
+    }
+}
@@ -0,0 +1,291 @@
+package com.tossupflash.backend;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Typeahead for topics, so users pick something QBReader knows instead of sending a misspelling
+ * through the whole generation pipeline. Candidates are answer lines from a local file plus
+ * topics that recently produced a deck for several different callers. They are kept as an
+ * immutable sorted array of keys (one per word start, so "war" finds "Cold War"), and the best
+ * matches for every prefix of up to {@value #PRECOMPUTED_PREFIX_LENGTH} characters are ranked
+ * ahead of time. A query is then a map lookup or a short binary-searched range scan. Rebuilds
+ * run on the scheduler and replace the snapshot with a single volatile write, so readers
+ * never block.
+ */
+@Component
+@Lazy(false)
+public class TopicSuggestionIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(TopicSuggestionIndex.class);
+    
+    public static final int MAX_LIMIT = 20;
+    static final int PRECOMPUTED_PREFIX_LENGTH = 3;
+    
+    // A topic that produced a deck outranks an answer line seen a few times in the corpus
+    private static final int HISTORY_WEIGHT = 5;
+    private static final int MAX_TOPIC_LENGTH = 80;
+    
+    private static final Pattern TAGS = Pattern.compile("<[^>]*>");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+    
+    private final FlashcardProperties properties;
+    // Bounded and expiring, so topics nobody asks for any more make room for new ones
+    private final Cache<String, HistoryEntry> history;
+    private volatile Snapshot snapshot = Snapshot.build(Map.of());
+    
+    public TopicSuggestionIndex(FlashcardProperties properties, PipelineMetrics metrics) {
+        this.properties = properties;
+        FlashcardProperties.Suggest settings = properties.getSuggest();
+        this.history = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxHistory())
+                .expireAfterAccess(settings.getHistoryRetention())
+                .build();
+        metrics.bindSuggestionIndexSize(() -> snapshot.topics.length);
+    }
+    
+    /**
+     * @param prefix What the user has typed so far
+     * @param limit Maximum suggestions, capped at {@value #MAX_LIMIT}
+     * @return Known topics matching the prefix at the start of any word, best first
+     */
+    public List<String> suggest(String prefix, int limit) {
+        return snapshot.suggest(normalize(prefix), Math.max(0, Math.min(limit, MAX_LIMIT)));
+    }
+    
+    /**
+     * Remembers a topic that produced a non-empty deck. It becomes suggestible at the next rebuild
+     * once enough distinct callers have generated it, so one caller cannot plant suggestions.
+     * @param topic Topic as the user typed it
+     * @param client Key of the caller, e.g. its user ID
+     */
+    public void recordGenerated(String topic, String client) {
+        String display = topic.trim().replaceAll("\\s+", " ");
+        String key = normalize(display);
+        if (key.isEmpty() || display.length() > MAX_TOPIC_LENGTH) {
+            return;
+        }
+        HistoryEntry entry = history.get(key, k -> new HistoryEntry(display));
+        if (entry.clients.size() < properties.getSuggest().getMinHistoryClients()) {
+            entry.clients.add(client);
+        }
+        entry.count.incrementAndGet();
+    }
+    
+    /**
+     * Builds a fresh snapshot from the answers file and topic history and swaps it in
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${flashcards.suggest.rebuild-interval:5m}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        Map<String, Candidate> candidates = new HashMap<>();
+        
+        String answersFile = properties.getSuggest().getAnswersFile();
+        if (answersFile != null && !answersFile.isBlank()) {
+            try (BufferedReader reader = open(Path.of(answersFile))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    add(candidates, cleanAnswerLine(line), 1);
+                }
+            } catch (IOException e) {
+                // Keep serving the previous snapshot rather than dropping suggestions
+                log.warn("Could not read topic answers file {}: {}", answersFile, e.getMessage());
+                return;
+            }
+        }
+        int minClients = properties.getSuggest().getMinHistoryClients();
+        history.asMap().values().stream()
+                .filter(entry -> entry.clients.size() >= minClients)
+                .forEach(entry -> add(candidates, entry.display, entry.count.get() * HISTORY_WEIGHT));
+        
+        snapshot = Snapshot.build(candidates);
+        log.atDebug().setMessage("Topic suggestion index rebuilt")
+                .addKeyValue("topics", candidates.size())
+                .addKeyValue("ms", (System.nanoTime() - start) / 1_000_000)
+                .log();
+    }
+    
+    private static void add(Map<String, Candidate> candidates, String display, int weight) {
+        String key = normalize(display);
+        if (key.isEmpty() || display.length() > MAX_TOPIC_LENGTH) {
+            return;
+        }
+        candidates.computeIfAbsent(key, k -> new Candidate(display)).weight += weight;
+    }
+    
+    /**
+     * Reduces a QBReader answer line to the topic it names: markup removed, and alternate-answer
+     * notes in brackets or parentheses cut off
+     */
+    static String cleanAnswerLine(String answerLine) {
+        String text = TAGS.matcher(answerLine).replaceAll("");
+        int cut = text.length();
+        for (char stop : new char[] {'[', '('}) {
+            int at = text.indexOf(stop);
+            if (at >= 0 && at < cut) {
+                cut = at;
+            }
+        }
+        return text.substring(0, cut).replace("\"", "").trim().replaceAll("\\s+", " ");
+    }
+    
+    /**
+     * Lower case, accents removed, punctuation collapsed to single spaces
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(decomposed.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+    
+    private static BufferedReader open(Path path) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        if (path.getFileName().toString().endsWith(".gz")) {
+            in = new GZIPInputStream(in, 1 << 16);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+    }
+    
+    private static class Candidate {
+        private final String display;
+        private int weight;
+        
+        private Candidate(String display) {
+            this.display = display;
+        }
+    }
+    
+    private static class HistoryEntry {
+        private final String display;
+        // Distinct callers, tracked only up to the number needed
+        private final Set<String> clients = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger count = new AtomicInteger();
+        
+        private HistoryEntry(String display) {
+            this.display = display;
+        }
+    }
+    
+    /**
+     * Immutable index over one set of candidates
+     */
+    private static final class Snapshot {
+        // Topics ordered best first, so a lower topic ID always ranks higher
+        private final String[] topics;
+        // One key per word start of each topic, sorted, with the topic it belongs to
+        private final String[] keys;
+        private final int[] keyTopics;
+        private final Map<String, int[]> precomputed;
+        
+        private Snapshot(String[] topics, String[] keys, int[] keyTopics, Map<String, int[]> precomputed) {
+            this.topics = topics;
+            this.keys = keys;
+            this.keyTopics = keyTopics;
+            this.precomputed = precomputed;
+        }
+        
+        static Snapshot build(Map<String, Candidate> candidates) {
+            List<Map.Entry<String, Candidate>> ranked = new ArrayList<>(candidates.entrySet());
+            // Heavier first; ties go to the shorter, then alphabetical topic
+            ranked.sort(Comparator.<Map.Entry<String, Candidate>>comparingInt(e -> -e.getValue().weight)
+                    .thenComparingInt(e -> e.getKey().length())
+                    .thenComparing(Map.Entry::getKey));
+            
+            String[] topics = new String[ranked.size()];
+            List<String> keyList = new ArrayList<>();
+            List<Integer> keyTopicList = new ArrayList<>();
+            for (int id = 0; id < ranked.size(); id++) {
+                String key = ranked.get(id).getKey();
+                topics[id] = ranked.get(id).getValue().display;
+                for (int at = 0; at < key.length(); at++) {
+                    if (at == 0 || key.charAt(at - 1) == ' ') {
+                        keyList.add(key.substring(at));
+                        keyTopicList.add(id);
+                    }
+                }
+            }
+            
+            Integer[] order = new Integer[keyList.size()];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, Comparator.comparing(keyList::get));
+            String[] keys = new String[order.length];
+            int[] keyTopics = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                keys[i] = keyList.get(order[i]);
+                keyTopics[i] = keyTopicList.get(order[i]);
+            }
+            
+            // Best MAX_LIMIT topics for every short prefix; topic IDs are already in rank order
+            Map<String, TreeSet<Integer>> matches = new HashMap<>();
+            for (int i = 0; i < keys.length; i++) {
+                String key = keys[i];
+                for (int length = 1; length <= Math.min(PRECOMPUTED_PREFIX_LENGTH, key.length()); length++) {
+                    TreeSet<Integer> ids = matches.computeIfAbsent(key.substring(0, length), p -> new TreeSet<>());
+                    ids.add(keyTopics[i]);
+                    if (ids.size() > MAX_LIMIT) {
+                        ids.pollLast();
+                    }
+                }
+            }
+            Map<String, int[]> precomputed = new HashMap<>(matches.size() * 2);
+            matches.forEach((prefix, ids) ->
+                    precomputed.put(prefix, ids.stream().mapToInt(Integer::intValue).toArray()));
+            return new Snapshot(topics, keys, keyTopics, precomputed);
+        }
+        
+        List<String> suggest(String prefix, int limit) {
+            if (prefix.isEmpty() || limit == 0) {
+                return List.of();
+            }
+            int[] ids = prefix.length() <= PRECOMPUTED_PREFIX_LENGTH
+                    ? precomputed.getOrDefault(prefix, new int[0])
+                    : scan(prefix);
+            List<String> suggestions = new ArrayList<>(Math.min(limit, ids.length));
+            for (int i = 0; i < ids.length && suggestions.size() < limit; i++) {
+                suggestions.add(topics[ids[i]]);
+            }
+            return suggestions;
+        }
+        
+        private int[] scan(String prefix) {
+            int at = Arrays.binarySearch(keys, prefix);
+            if (at < 0) {
+                at = -at - 1;
+            }
+            TreeSet<Integer> ids = new TreeSet<>();
+            for (int i = at; i < keys.length && keys[i].startsWith(prefix); i++) {
+                ids.add(keyTopics[i]);
+            }
+            return ids.stream().mapToInt(Integer::intValue).limit(MAX_LIMIT).toArray();
+        }
+    }
+}
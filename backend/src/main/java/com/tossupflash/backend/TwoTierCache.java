@@ -0,0 +1,163 @@
+package com.tossupflash.backend;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache with an in-process near tier in front of a shared {@link RemoteCache}.
+ * Concurrent misses for the same key on one node are coalesced into a single load, and a
+ * failing shared tier only costs hit rate: errors there are logged and treated as misses.
+ * A loader returning null means "don't cache" (e.g. a transient upstream error).
+ */
+public class TwoTierCache<V> {
+    
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCache.class);
+    
+    private final String name;
+    private final String keyPrefix;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final RemoteCache remote;
+    private final ObjectMapper objectMapper;
+    private final JavaType valueType;
+    private final PipelineMetrics metrics;
+    private final Cache<String, V> near;
+    private final ConcurrentMap<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    
+    public TwoTierCache(String name, JavaType valueType, Duration ttl, FlashcardProperties.Cache settings,
+                        RemoteCache remote, ObjectMapper objectMapper, PipelineMetrics metrics) {
+        this.name = name;
+        this.keyPrefix = "flashcards:" + name + ":";
+        this.enabled = settings.isEnabled();
+        this.ttl = ttl;
+        this.remote = remote;
+        this.objectMapper = objectMapper;
+        this.valueType = valueType;
+        this.metrics = metrics;
+        this.near = Caffeine.newBuilder()
+                .maximumSize(settings.getNearMaxEntries())
+                .expireAfterWrite(settings.getNearTtl().compareTo(ttl) < 0 ? settings.getNearTtl() : ttl)
+                .build();
+        
+        remote.onInvalidation(fullKey -> {
+            if (fullKey.startsWith(keyPrefix)) {
+                near.invalidate(fullKey.substring(keyPrefix.length()));
+            }
+        });
+        metrics.bindCacheGauges(name, near::estimatedSize, inFlight::size);
+    }
+    
+    /**
+     * Returns the cached value for a key, loading and caching it on a miss
+     * @param key Cache key, unique within this cache
+     * @param loader Produces the value on a miss; may return null to skip caching
+     * @return The cached or freshly loaded value, or null if the loader returned null
+     */
+    public V get(String key, Supplier<V> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        
+        V value = near.getIfPresent(key);
+        if (value != null) {
+            recordLookup(key, "near_hit");
+            return value;
+        }
+        
+        // Only one caller per key does the work; the rest wait for its result
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, load);
+        if (leader != null) {
+            recordLookup(key, "coalesced");
+            return awaitLeader(leader);
+        }
+        
+        try {
+            value = readRemote(key);
+            if (value != null) {
+                recordLookup(key, "remote_hit");
+            } else {
+                recordLookup(key, "miss");
+                value = loader.get();
+                if (value != null) {
+                    writeRemote(key, value);
+                }
+            }
+            if (value != null) {
+                near.put(key, value);
+            }
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+    
+    private void recordLookup(String key, String result) {
+        metrics.recordCacheLookup(name, result);
+        FlightEvents.CacheLookup event = new FlightEvents.CacheLookup();
+        if (event.shouldCommit()) {
+            event.cache = name;
+            event.key = key;
+            event.result = result;
+            event.requestId = FlightEvents.requestId();
+            event.commit();
+        }
+    }
+    
+    /**
+     * Drops a key from the shared tier and from every node's near tier
+     * @param key Cache key, unique within this cache
+     */
+    public void invalidate(String key) {
+        near.invalidate(key);
+        try {
+            remote.invalidate(keyPrefix + key);
+        } catch (RuntimeException e) {
+            log.warn("Shared cache invalidation failed for {}:{}: {}", name, key, e.getMessage());
+        }
+    }
+    
+    private V readRemote(String key) {
+        try {
+            String json = remote.get(keyPrefix + key);
+            return json != null ? objectMapper.readValue(json, valueType) : null;
+        } catch (RuntimeException | JsonProcessingException e) {
+            log.debug("Shared cache read failed for {}:{}: {}", name, key, e.getMessage());
+            return null;
+        }
+    }
+    
+    private void writeRemote(String key, V value) {
+        try {
+            remote.put(keyPrefix + key, objectMapper.writeValueAsString(value), ttl);
+        } catch (RuntimeException | JsonProcessingException e) {
+            log.debug("Shared cache write failed for {}:{}: {}", name, key, e.getMessage());
+        }
+    }
+    
+    private static <V> V awaitLeader(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.tossupflash.backend;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+public class UpstreamClientConfig {
+    
+    public static final String UPSTREAM_EXECUTOR = "upstreamExecutor";
+    
+    @Bean
+    public RestTemplate upstreamRestTemplate(RestTemplateBuilder builder, PipelineMetrics metrics) {
+        return builder
+            .additionalInterceptors(new UpstreamMetricsInterceptor(metrics))
+            .build();
+    }
+    
+    /**
+     * With spring.threads.virtual.enabled=true (Java 21+) every blocking QBReader/Wikipedia
+     * call gets its own virtual thread, so in-flight calls are not capped by a pool size
+     */
+    @Bean(UPSTREAM_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor upstreamVirtualExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("upstream-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        return executor;
+    }
+    
+    @Bean(UPSTREAM_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor upstreamPlatformExecutor(FlashcardProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("upstream-");
+        executor.setCorePoolSize(properties.getUpstream().getPlatformThreads());
+        executor.setMaxPoolSize(properties.getUpstream().getPlatformThreads());
+        executor.setQueueCapacity(properties.getUpstream().getQueueCapacity());
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        return executor;
+    }
+}
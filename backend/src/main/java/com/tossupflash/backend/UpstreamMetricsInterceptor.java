@@ -0,0 +1,147 @@
+package com.tossupflash.backend;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts and times every call FlashcardService makes to QBReader and Wikipedia, tagged by
+ * upstream host and outcome. When a flight recording has upstream-call events enabled, each
+ * call is also recorded with its status and response size.
+ */
+public class UpstreamMetricsInterceptor implements ClientHttpRequestInterceptor {
+    
+    private final PipelineMetrics metrics;
+    
+    public UpstreamMetricsInterceptor(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, 
+                                        ClientHttpRequestExecution execution) throws IOException {
+        String host = request.getURI().getHost();
+        FlightEvents.UpstreamCall event = new FlightEvents.UpstreamCall();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            if (event.isEnabled()) {
+                event.host = host;
+                event.path = request.getURI().getRawPath();
+                event.status = response.getStatusCode().value();
+                event.requestId = FlightEvents.requestId();
+            }
+            // The body is read after this returns, so the call is timed until the response is closed
+            return new RecordedResponse(response, metrics, host, outcome(response.getStatusCode()), start, event);
+        } catch (IOException e) {
+            metrics.recordUpstreamCall(host, "IO_ERROR", System.nanoTime() - start);
+            if (event.shouldCommit()) {
+                event.host = host;
+                event.path = request.getURI().getRawPath();
+                event.requestId = FlightEvents.requestId();
+                event.commit();
+            }
+            throw e;
+        }
+    }
+    
+    private static String outcome(HttpStatusCode status) {
+        if (status.is5xxServerError()) {
+            return "SERVER_ERROR";
+        }
+        if (status.is4xxClientError()) {
+            return "CLIENT_ERROR";
+        }
+        return "SUCCESS";
+    }
+    
+    /**
+     * Records the call's metrics and commits the event, with the bytes read from the body, when
+     * the response is closed
+     */
+    private static class RecordedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final PipelineMetrics metrics;
+        private final String host;
+        private final String outcome;
+        private final long start;
+        private final FlightEvents.UpstreamCall event;
+        private InputStream body;
+        private boolean closed;
+        
+        private RecordedResponse(ClientHttpResponse response, PipelineMetrics metrics, String host,
+                                 String outcome, long start, FlightEvents.UpstreamCall event) {
+            this.response = response;
+            this.metrics = metrics;
+            this.host = host;
+            this.outcome = outcome;
+            this.start = start;
+            this.event = event;
+        }
+        
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+        
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+        
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+        
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null && !event.isEnabled()) {
+                // Nothing to count without a recording
+                body = response.getBody();
+            } else if (body == null) {
+                body = new FilterInputStream(response.getBody()) {
+                    @Override
+                    public int read() throws IOException {
+                        int b = super.read();
+                        if (b >= 0) {
+                            event.bytes++;
+                        }
+                        return b;
+                    }
+                    
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        int n = super.read(buffer, offset, length);
+                        if (n > 0) {
+                            event.bytes += n;
+                        }
+                        return n;
+                    }
+                };
+            }
+            return body;
+        }
+        
+        @Override
+        public void close() {
+            response.close();
+            if (closed) {
+                return;
+            }
+            closed = true;
+            metrics.recordUpstreamCall(host, outcome, System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+    }
+}
@@ -5,21 +5,32 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+    @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"),
+    @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
+})
 public class User {
+    static final String USERNAME_CONSTRAINT = "uk_users_username";
+    static final String EMAIL_CONSTRAINT = "uk_users_email";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
     
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
     
     @Column(nullable = false)
     private String password;
     
+    // Advanced by one per saved or deleted card; the saved-flashcards ETag and the change log
+    // (SavedFlashcardChange) are keyed by it
+    @Column(nullable = false)
+    private long savedCardsVersion = 0;
+    
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<SavedFlashcard> savedFlashcards = new ArrayList<>();
     
@@ -64,6 +75,10 @@ public class User {
         this.password = password;
     }
     
+    public long getSavedCardsVersion() {
+        return savedCardsVersion;
+    }
+    
     public List<SavedFlashcard> getSavedFlashcards() {
         return savedFlashcards;
     }
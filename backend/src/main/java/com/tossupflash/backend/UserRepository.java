@@ -1,7 +1,10 @@
 package com.tossupflash.backend;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 @Repository
@@ -10,4 +13,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+    
+    // Rehash-on-login: one UPDATE, outside any longer transaction
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :password where u.id = :userId")
+    int updatePassword(Long userId, String password);
+    
+    @Query("select u.savedCardsVersion from User u where u.id = :userId")
+    Optional<Long> findSavedCardsVersion(Long userId);
+    
+    // Single UPDATE, so concurrent saves from one user never lose an increment; the row lock it
+    // takes also makes one user's versions commit in order
+    @Modifying
+    @Query("update User u set u.savedCardsVersion = u.savedCardsVersion + :changes where u.id = :userId")
+    int advanceSavedCardsVersion(Long userId, long changes);
 } 
\ No newline at end of file
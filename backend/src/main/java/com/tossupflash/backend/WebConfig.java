@@ -0,0 +1,21 @@
+package com.tossupflash.backend;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    
+    private final GenerationAdmissionInterceptor generationAdmissionInterceptor;
+    
+    public WebConfig(GenerationAdmissionInterceptor generationAdmissionInterceptor) {
+        this.generationAdmissionInterceptor = generationAdmissionInterceptor;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Rate limits and the generation bulkhead only apply to the expensive endpoint
+        registry.addInterceptor(generationAdmissionInterceptor).addPathPatterns("/flashcards");
+    }
+}
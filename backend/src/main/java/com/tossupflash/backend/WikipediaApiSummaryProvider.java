@@ -0,0 +1,61 @@
+package com.tossupflash.backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Summaries from the live Wikipedia REST API (/api/rest_v1/page/summary)
+ */
+public class WikipediaApiSummaryProvider implements SummaryProvider {
+    
+    private static final Logger log = LoggerFactory.getLogger(WikipediaApiSummaryProvider.class);
+    
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FlashcardProperties properties;
+    
+    public WikipediaApiSummaryProvider(RestTemplate restTemplate, FlashcardProperties properties) {
+        this.restTemplate = restTemplate;
+        this.properties = properties;
+    }
+    
+    @Override
+    public String summary(String title) {
+        String phrase = title.replace('_', ' ');
+        try {
+            String url = properties.getWikipedia().getBaseUrl() + "/api/rest_v1/page/summary/" + title;
+            
+            log.debug("Calling Wikipedia API for '{}': {}", phrase, url);
+            
+            String response = restTemplate.getForObject(url, String.class);
+            
+            JsonNode jsonNode = objectMapper.readTree(response);
+            JsonNode extractNode = jsonNode.get("extract");
+            
+            if (extractNode != null) {
+                String firstTwoSentences = SummaryText.firstTwoSentences(extractNode.asText());
+                
+                if (log.isTraceEnabled()) {
+                    log.trace("Wikipedia summary for '{}': {}...", phrase,
+                        firstTwoSentences.substring(0, Math.min(100, firstTwoSentences.length())));
+                }
+                
+                return firstTwoSentences;
+            }
+            return "";
+            
+        } catch (HttpClientErrorException.NotFound e) {
+            log.debug("No Wikipedia article for '{}'", phrase);
+            return "";
+        } catch (Exception e) {
+            // If Wikipedia lookup fails, return null
+            log.debug("Failed to get Wikipedia summary for '{}': {}", phrase, e.getMessage());
+        }
+        
+        return null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.tossupflash.backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Where phrases are resolved to articles and where article summaries come from. Both offline
+ * files are optional; a configured but missing file fails startup rather than silently falling
+ * back to Wikipedia calls.
+ */
+@Configuration
+public class WikipediaConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(WikipediaConfig.class);
+    
+    /**
+     * Maps the offline title index when flashcards.wikipedia.title-index is set; otherwise
+     * every phrase is requested from Wikipedia as-is
+     */
+    @Bean
+    public TitleIndex titleIndex(FlashcardProperties properties) throws IOException {
+        String location = properties.getWikipedia().getTitleIndex();
+        if (location == null || location.isBlank()) {
+            return TitleIndex.passThrough();
+        }
+        TitleIndex index = TitleIndex.open(Path.of(location));
+        log.info("Loaded Wikipedia title index {} ({} keys)", location, index.size());
+        return index;
+    }
+    
+    /**
+     * Serves summaries from the offline abstracts store when flashcards.wikipedia.abstracts-store
+     * is set, otherwise from the Wikipedia REST API
+     */
+    @Bean
+    public SummaryProvider summaryProvider(FlashcardProperties properties, RestTemplate restTemplate)
+            throws IOException {
+        String location = properties.getWikipedia().getAbstractsStore();
+        if (location == null || location.isBlank()) {
+            return new WikipediaApiSummaryProvider(restTemplate, properties);
+        }
+        AbstractStore store = AbstractStore.open(Path.of(location));
+        log.info("Loaded Wikipedia abstracts store {} ({} abstracts)", location, store.size());
+        return store;
+    }
+}
@@ -0,0 +1,71 @@
+package com.tossupflash.backend;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class AbstractStoreTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void servesTwoSentenceSummariesAcrossBlocks() throws Exception {
+		StringBuilder dump = new StringBuilder("<feed>");
+		for (int i = 0; i < 300; i++) {
+			dump.append("<doc><title>Wikipedia: Article ").append(i).append("</title>")
+					.append("<url>https://en.wikipedia.org/wiki/Article_").append(i).append("</url>")
+					.append("<abstract>Article ").append(i).append(" is the first sentence here. ")
+					.append("It has a second sentence too. A third one is dropped at ingest.</abstract>")
+					.append("<links><sublink linktype=\"nav\"><anchor>See also</anchor></sublink></links></doc>");
+		}
+		dump.append("<doc><title>Wikipedia: Infobox Only</title><abstract>| name = x</abstract></doc>");
+		dump.append("</feed>");
+		AbstractStore store = build(dump.toString());
+
+		assertEquals(300, store.size());
+		for (int i = 0; i < 300; i++) {
+			assertEquals("Article " + i + " is the first sentence here. It has a second sentence too.",
+					store.summary("Article_" + i));
+		}
+		assertEquals(store.summary("Article_42"), store.summary("article 42"));
+		assertEquals("", store.summary("Infobox_Only"));
+		assertEquals("", store.summary("Zebra"));
+		assertEquals("", store.summary("Aardvark"));
+		assertFalse(store.isRemote());
+	}
+
+	@Test
+	void decodesEscapedMarkupAndNonAsciiText() throws Exception {
+		AbstractStore store = build("<feed><doc><title>Wikipedia: Richard Willstätter</title>"
+				+ "<abstract>Richard Martin Willstätter was a German organic chemist &amp; Nobel laureate. "
+				+ "He studied chlorophyll.</abstract></doc></feed>");
+
+		assertEquals("Richard Martin Willstätter was a German organic chemist & Nobel laureate. He studied chlorophyll.",
+				store.summary("Richard_Willstätter"));
+	}
+
+	@Test
+	void titlesDifferingPastTheFirstLetterAreDifferentArticles() throws Exception {
+		AbstractStore store = build("<feed>"
+				+ "<doc><title>Wikipedia: NICE</title><abstract>NICE is a public body. It issues guidance.</abstract></doc>"
+				+ "<doc><title>Wikipedia: Nice</title><abstract>Nice is a city in France. It lies on the Riviera.</abstract></doc>"
+				+ "</feed>");
+
+		assertEquals(2, store.size());
+		assertEquals("NICE is a public body. It issues guidance.", store.summary("NICE"));
+		assertEquals("Nice is a city in France. It lies on the Riviera.", store.summary("Nice"));
+		assertEquals("Nice is a city in France. It lies on the Riviera.", store.summary("nice"));
+	}
+
+	private AbstractStore build(String xml) throws Exception {
+		Path dump = Files.writeString(dir.resolve("abstracts.xml"), xml);
+		Path output = dir.resolve("abstracts.store");
+		AbstractStoreBuilder.build(dump, output);
+		return AbstractStore.open(output);
+	}
+}
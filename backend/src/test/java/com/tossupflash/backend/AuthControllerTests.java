@@ -0,0 +1,110 @@
+package com.tossupflash.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// One hashing thread and one queue slot, so the pool is easy to fill
+@SpringBootTest(properties = {"auth.hashing.threads=1", "auth.hashing.queue-capacity=1", "auth.bcrypt.strength=5"})
+@AutoConfigureMockMvc
+class AuthControllerTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	UserRepository users;
+
+	@Autowired
+	PasswordEncoder passwordEncoder;
+
+	@Autowired
+	PasswordHashingExecutor hashingExecutor;
+
+	@Test
+	void duplicateUsernameAndEmailAreReportedFromTheConstraints() throws Exception {
+		register("dup-user", "dup@example.com").andExpect(status().isOk());
+
+		register("dup-user", "other@example.com")
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("Username already exists"));
+		register("other-user", "dup@example.com")
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("Email already exists"));
+	}
+
+	@Test
+	void loginUpgradesHashesBelowTheConfiguredStrength() throws Exception {
+		User user = new User("weak-hash", "weak@example.com", new BCryptPasswordEncoder(4).encode("secret123"));
+		users.save(user);
+		assertTrue(passwordEncoder.upgradeEncoding(user.getPassword()));
+
+		login("weak-hash", "secret123").andExpect(status().isOk()).andExpect(jsonPath("$.token").exists());
+
+		String stored = users.findByUsername("weak-hash").orElseThrow().getPassword();
+		assertFalse(passwordEncoder.upgradeEncoding(stored));
+		assertTrue(passwordEncoder.matches("secret123", stored));
+		login("weak-hash", "wrong").andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void saturatedHashingPoolShedsRequestsWith429() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<CompletableFuture<Void>> blockers = new ArrayList<>();
+		try {
+			blockers.add(hashingExecutor.submit(() -> {
+				started.countDown();
+				return await(release);
+			}));
+			// Only once the thread has taken the first task is the queue slot free for the second
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			blockers.add(hashingExecutor.submit(() -> await(release)));
+
+			register("shed-user", "shed@example.com")
+					.andExpect(status().isTooManyRequests())
+					.andExpect(header().string("Retry-After", "1"));
+		} finally {
+			release.countDown();
+			CompletableFuture.allOf(blockers.toArray(CompletableFuture[]::new)).join();
+		}
+		register("shed-user", "shed@example.com").andExpect(status().isOk());
+	}
+
+	private ResultActions register(String username, String email) throws Exception {
+		return mvc.perform(post("/auth/register").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"" + username + "\",\"email\":\"" + email + "\",\"password\":\"secret123\"}"));
+	}
+
+	private ResultActions login(String username, String password) throws Exception {
+		return mvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"));
+	}
+
+	private static Void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return null;
+	}
+}
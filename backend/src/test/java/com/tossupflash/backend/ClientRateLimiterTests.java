@@ -0,0 +1,65 @@
+package com.tossupflash.backend;
+
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientRateLimiterTests {
+
+	private final AtomicLong clock = new AtomicLong();
+	// Two tokens, one back every second
+	private final ClientRateLimiter limiter = new ClientRateLimiter(2, 60, clock::get);
+
+	@Test
+	void burstIsSpentThenDeniedUntilTheNextToken() {
+		ClientRateLimiter.Decision first = limiter.tryAcquire("ip:a");
+		ClientRateLimiter.Decision second = limiter.tryAcquire("ip:a");
+		ClientRateLimiter.Decision third = limiter.tryAcquire("ip:a");
+
+		assertTrue(first.allowed());
+		assertEquals(1, first.remaining());
+		assertEquals(seconds(1), first.resetNanos());
+		assertTrue(second.allowed());
+		assertEquals(0, second.remaining());
+		assertEquals(seconds(2), second.resetNanos());
+		assertFalse(third.allowed());
+		assertEquals(2, third.limit());
+		assertEquals(seconds(2), third.resetNanos());
+		assertEquals(seconds(1), third.retryAfterNanos());
+	}
+
+	@Test
+	void retryAfterShrinksAsTheTokenRefills() {
+		limiter.tryAcquire("ip:a");
+		limiter.tryAcquire("ip:a");
+
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+		ClientRateLimiter.Decision early = limiter.tryAcquire("ip:a");
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+		ClientRateLimiter.Decision refilled = limiter.tryAcquire("ip:a");
+
+		assertFalse(early.allowed());
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(600), early.retryAfterNanos());
+		assertTrue(refilled.allowed());
+		assertEquals(0, refilled.remaining());
+	}
+
+	@Test
+	void clientsHaveSeparateBuckets() {
+		limiter.tryAcquire("ip:a");
+		limiter.tryAcquire("ip:a");
+
+		ClientRateLimiter.Decision other = limiter.tryAcquire("user:7");
+
+		assertTrue(other.allowed());
+		assertEquals(1, other.remaining());
+	}
+
+	private static long seconds(long seconds) {
+		return TimeUnit.SECONDS.toNanos(seconds);
+	}
+}
@@ -0,0 +1,29 @@
+package com.tossupflash.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("faststart")
+class FaststartProfileTests {
+
+	@Autowired
+	private ScheduledTaskHolder scheduledTasks;
+
+	@Test
+	void scheduledWorkStartsWithoutWaitingForFirstUse() {
+		List<String> scheduled = scheduledTasks.getScheduledTasks().stream()
+				.map(task -> task.getTask().toString())
+				.toList();
+
+		assertTrue(scheduled.contains(TopicSuggestionIndex.class.getName() + ".rebuild"), scheduled::toString);
+		assertTrue(scheduled.contains(SavedFlashcardChangeLog.class.getName() + ".prune"), scheduled::toString);
+		assertTrue(scheduled.contains(SavedFlashcardSync.class.getName() + ".heartbeat"), scheduled::toString);
+	}
+}
@@ -0,0 +1,189 @@
+package com.tossupflash.backend;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.web.client.RestTemplate;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlashcardServiceTests {
+
+	private final FlashcardProperties properties = new FlashcardProperties();
+	private final PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private FlashcardService service(RestTemplate restTemplate, SummaryProvider summaries) {
+		return new FlashcardService(restTemplate, metrics, properties, executor,
+				new FlashcardCaches(properties, new LocalRemoteCache(100), metrics), TitleIndex.passThrough(),
+				summaries, new StandardEnvironment());
+	}
+
+	@Test
+	void slowLookupDoesNotHoldBackTheOthers() {
+		properties.getWikipedia().setMaxConcurrency(2);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean slowFinished = new AtomicBoolean();
+		SummaryProvider summaries = new SummaryProvider() {
+			@Override
+			public String summary(String title) {
+				if (title.equals("Alpha")) {
+					try {
+						release.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					slowFinished.set(true);
+					return "";
+				}
+				return "About " + title;
+			}
+
+			@Override
+			public boolean isRemote() {
+				return false;
+			}
+		};
+
+		FlashcardService.LookupResult result;
+		try {
+			result = service(new RestTemplate(), summaries)
+					.lookupSummariesUntil(List.of("Alpha", "Beta", "Gamma", "Delta"), 2);
+			assertFalse(slowFinished.get());
+		} finally {
+			release.countDown();
+		}
+		assertEquals(List.of("Beta", "Gamma"), List.copyOf(result.summaries().keySet()));
+		assertEquals(2, result.lookups());
+	}
+
+	@Test
+	void broadSearchMergesTossupsByIdAcrossWords() throws Exception {
+		FlashcardService service = service(qbreader(word -> tossups("a", "b", "c")), title -> "");
+
+		List<JsonNode> tossups = service.broadSearch("Berlin Wall");
+
+		assertEquals(List.of("a", "b", "c"), ids(tossups));
+	}
+
+	@Test
+	void broadSearchStopsAtFiveTossupsAndCancelsTheRest() throws Exception {
+		StalledQueries stalled = new StalledQueries();
+		Map<String, String> answers = Map.of("berlin", tossups("a", "b", "c"), "wall", tossups("d", "e", "f"));
+		FlashcardService service = service(qbreader(word -> answers.containsKey(word)
+				? answers.get(word) : stalled.answer()), title -> "");
+
+		List<JsonNode> tossups = service.broadSearch("Berlin Wall Crisis");
+
+		assertEquals(5, tossups.size());
+		assertEquals(5, new HashSet<>(ids(tossups)).size());
+		assertTrue(stalled.allCancelled());
+	}
+
+	@Test
+	void broadSearchReturnsWhatArrivedByTheDeadline() throws Exception {
+		properties.getQbreader().setBroadSearchTimeoutMs(200);
+		StalledQueries stalled = new StalledQueries();
+		FlashcardService service = service(qbreader(word -> word.equals("berlin") ? tossups("a") : stalled.answer()),
+				title -> "");
+
+		long start = System.nanoTime();
+		List<JsonNode> tossups = service.broadSearch("Berlin Wall");
+
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+		assertEquals(List.of("a"), ids(tossups));
+		assertEquals(1, stalled.started.get());
+		assertTrue(stalled.allCancelled());
+	}
+
+	@Test
+	void interruptedGenerationKeepsTheInterruptAndCancelsQueries() throws Exception {
+		StalledQueries stalled = new StalledQueries();
+		// The exact answer search finds nothing, so generation falls back to the broad search
+		FlashcardService service = service(qbreader(word -> word.contains("+") ? tossups() : stalled.answer()),
+				title -> "");
+
+		Thread.currentThread().interrupt();
+		List<Flashcard> deck = service.generateFlashcards("Berlin Wall");
+
+		assertTrue(Thread.interrupted());
+		assertTrue(deck.isEmpty());
+		assertTrue(stalled.allCancelled());
+	}
+
+	/**
+	 * QBReader stand-in answering each broad query by its word
+	 */
+	private static RestTemplate qbreader(Function<String, String> answer) {
+		return new RestTemplate() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public <T> T getForObject(String url, Class<T> responseType, Object... uriVariables) {
+				String word = url.replaceAll(".*queryString=([^&]*).*", "$1");
+				return (T) answer.apply(word);
+			}
+		};
+	}
+
+	private static String tossups(String... ids) {
+		StringBuilder json = new StringBuilder("{\"tossups\":{\"questionArray\":[");
+		for (int i = 0; i < ids.length; i++) {
+			json.append(i > 0 ? "," : "")
+					.append("{\"_id\":\"").append(ids[i]).append("\",\"question\":\"Same text\"}");
+		}
+		return json.append("]}}").toString();
+	}
+
+	/**
+	 * Queries that hang until cancelled
+	 */
+	private static class StalledQueries {
+
+		final AtomicInteger started = new AtomicInteger();
+		final AtomicInteger interrupted = new AtomicInteger();
+
+		String answer() {
+			started.incrementAndGet();
+			try {
+				Thread.sleep(10_000);
+			} catch (InterruptedException e) {
+				interrupted.incrementAndGet();
+			}
+			throw new IllegalStateException("query cancelled");
+		}
+
+		/**
+		 * A query cancelled before it started never runs, so every one that did start must be interrupted
+		 */
+		boolean allCancelled() throws InterruptedException {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (interrupted.get() < started.get() && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			return interrupted.get() == started.get();
+		}
+	}
+
+	private static List<String> ids(List<JsonNode> tossups) {
+		return tossups.stream().map(tossup -> tossup.get("_id").asText()).toList();
+	}
+}
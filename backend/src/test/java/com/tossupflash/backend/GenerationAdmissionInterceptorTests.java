@@ -0,0 +1,82 @@
+package com.tossupflash.backend;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GenerationAdmissionInterceptorTests {
+
+	private final FlashcardProperties properties = new FlashcardProperties();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private GenerationAdmissionInterceptor interceptor(int burst, int maxConcurrent) {
+		properties.getAdmission().setBurst(burst);
+		properties.getAdmission().setRefillPerMinute(1);
+		properties.getAdmission().setMaxConcurrent(maxConcurrent);
+		properties.getAdmission().setMaxQueued(0);
+		return new GenerationAdmissionInterceptor(properties, new PipelineMetrics(registry));
+	}
+
+	@Test
+	void spentBurstIsRejectedWithRetryAfter() throws Exception {
+		GenerationAdmissionInterceptor interceptor = interceptor(1, 4);
+		assertTrue(admit(interceptor, client("10.0.0.1"), new MockHttpServletResponse()));
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		assertFalse(admit(interceptor, client("10.0.0.1"), response));
+
+		assertEquals(429, response.getStatus());
+		assertEquals("60", response.getHeader("Retry-After"));
+		assertEquals("0", response.getHeader("RateLimit-Remaining"));
+		assertEquals(1, rejected("rate_limited"));
+	}
+
+	@Test
+	void busyRejectionLeavesTheClientsTokens() throws Exception {
+		GenerationAdmissionInterceptor interceptor = interceptor(1, 1);
+		MockHttpServletRequest running = client("10.0.0.1");
+		assertTrue(admit(interceptor, running, new MockHttpServletResponse()));
+
+		MockHttpServletResponse busy = new MockHttpServletResponse();
+		assertFalse(admit(interceptor, client("10.0.0.2"), busy));
+		interceptor.afterCompletion(running, new MockHttpServletResponse(), null, null);
+
+		assertEquals(429, busy.getStatus());
+		assertEquals("1", busy.getHeader("Retry-After"));
+		assertEquals(1, rejected("busy"));
+		assertTrue(admit(interceptor, client("10.0.0.2"), new MockHttpServletResponse()));
+	}
+
+	@Test
+	void rateLimitedRequestGivesItsSlotBack() throws Exception {
+		GenerationAdmissionInterceptor interceptor = interceptor(1, 1);
+		MockHttpServletRequest first = client("10.0.0.1");
+		assertTrue(admit(interceptor, first, new MockHttpServletResponse()));
+		interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+
+		assertFalse(admit(interceptor, client("10.0.0.1"), new MockHttpServletResponse()));
+
+		assertEquals(1, rejected("rate_limited"));
+		assertTrue(admit(interceptor, client("10.0.0.2"), new MockHttpServletResponse()));
+	}
+
+	private static boolean admit(GenerationAdmissionInterceptor interceptor, MockHttpServletRequest request,
+			MockHttpServletResponse response) throws Exception {
+		return interceptor.preHandle(request, response, null);
+	}
+
+	private static MockHttpServletRequest client(String address) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/flashcards");
+		request.setRemoteAddr(address);
+		return request;
+	}
+
+	private double rejected(String reason) {
+		return registry.get("flashcards.admission.rejected").tag("reason", reason).counter().count();
+	}
+}
@@ -0,0 +1,58 @@
+package com.tossupflash.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JfrSummaryTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void summarizesStagesCacheLookupsAndTokenChecksFromTheBundledSettings() throws Exception {
+		PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+		JwtUtil jwtUtil = new JwtUtil();
+		String token = jwtUtil.generateToken("reader", 1L);
+		Path file = dir.resolve("test.jfr");
+
+		try (Recording recording = new Recording(FlightRecording.settings())) {
+			recording.start();
+			for (String requestId : new String[] {"fast-request", "slow-request"}) {
+				MDC.put(RequestCorrelationFilter.REQUEST_ID_KEY, requestId);
+				try (PipelineMetrics.StageTimer stage = metrics.startStage(PipelineMetrics.Stage.EXTRACTION)) {
+					Thread.sleep(requestId.startsWith("slow") ? 30 : 1);
+				}
+				jwtUtil.parseVerifiedClaims(token);
+			}
+			MDC.remove(RequestCorrelationFilter.REQUEST_ID_KEY);
+			ObjectMapper objectMapper = new ObjectMapper();
+			TwoTierCache<String> cache = new TwoTierCache<>("summaries", objectMapper.constructType(String.class),
+					Duration.ofMinutes(1), new FlashcardProperties().getCache(), new LocalRemoteCache(10), objectMapper, metrics);
+			cache.get("Berlin_Wall", () -> "summary");
+			cache.get("Berlin_Wall", () -> "summary");
+			recording.stop();
+			recording.dump(file);
+		}
+
+		ByteArrayOutputStream report = new ByteArrayOutputStream();
+		JfrSummary.summarize(file, 1, new PrintStream(report, true, StandardCharsets.UTF_8));
+		String text = report.toString(StandardCharsets.UTF_8);
+
+		assertTrue(text.matches("(?s).*\\n  extraction +2 .*"), text);
+		assertTrue(text.matches("(?s).*summaries +2 lookups, +50\\.0% hits.*"), text);
+		assertTrue(text.contains("Token validations: 2 (1 cached, 0 invalid)"), text);
+		assertTrue(text.matches("(?s).*Slowest requests \\(ms\\)\\n  slow-request .*"), text);
+		assertTrue(!text.contains("fast-request"), text);
+	}
+}
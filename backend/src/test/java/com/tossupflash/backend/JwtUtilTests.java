@@ -0,0 +1,80 @@
+package com.tossupflash.backend;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtUtilTests {
+
+	private final JwtUtil jwtUtil = new JwtUtil();
+
+	@AfterEach
+	void clearAuthentication() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void repeatedTokenIsServedFromTheCache() {
+		String token = jwtUtil.generateToken("alice", 42L);
+
+		Claims first = jwtUtil.parseVerifiedClaims(token);
+		Claims second = jwtUtil.parseVerifiedClaims(token);
+
+		assertSame(first, second);
+		assertEquals("alice", second.getSubject());
+	}
+
+	@Test
+	void tamperedTokensAreRejectedAfterTheGenuineOneIsCached() {
+		String token = jwtUtil.generateToken("alice", 42L);
+		jwtUtil.parseVerifiedClaims(token);
+		String[] parts = token.split("\\.");
+		String[] other = jwtUtil.generateToken("mallory", 7L).split("\\.");
+
+		char first = parts[2].charAt(0);
+		String badSignature = parts[0] + "." + parts[1] + "." + (first == 'A' ? 'B' : 'A') + parts[2].substring(1);
+		String swappedPayload = parts[0] + "." + other[1] + "." + parts[2];
+
+		assertThrows(JwtException.class, () -> jwtUtil.parseVerifiedClaims(badSignature));
+		assertThrows(JwtException.class, () -> jwtUtil.parseVerifiedClaims(swappedPayload));
+	}
+
+	@Test
+	void cachedTokenIsNotServedOnceExpired() throws InterruptedException {
+		// Expiry is stored in whole seconds, so this token lapses within a second
+		String token = jwtUtil.generateToken("alice", 42L, 1000);
+		jwtUtil.parseVerifiedClaims(token);
+
+		Thread.sleep(1100);
+
+		assertThrows(ExpiredJwtException.class, () -> jwtUtil.parseVerifiedClaims(token));
+	}
+
+	@Test
+	void filterSetsUserIdFromCachedClaims() throws ServletException, IOException {
+		JwtAuthFilter filter = new JwtAuthFilter();
+		ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+		String token = jwtUtil.generateToken("alice", 42L);
+		jwtUtil.parseVerifiedClaims(token);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/saved-flashcards");
+		request.addHeader("Authorization", "Bearer " + token);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		assertEquals(42L, request.getAttribute("userId"));
+		assertEquals("alice", SecurityContextHolder.getContext().getAuthentication().getName());
+	}
+}
@@ -0,0 +1,50 @@
+package com.tossupflash.backend;
+
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PhraseDeduplicatorTests {
+
+	private final PhraseDeduplicator deduplicator = new PhraseDeduplicator();
+
+	@Test
+	void rareExtensionAndItsFragmentsCollapseIntoCoreConcept() {
+		Map<String, Integer> result = deduplicator.deduplicate(Map.of(
+				"Treaty Versailles", 3,
+				"Treaty Versailles Germany", 1,
+				"Versailles Germany", 1));
+
+		assertEquals(Map.of("Treaty Versailles", 3), result);
+	}
+
+	@Test
+	void fragmentsThatOnlyOccurInsideLongerPhraseAreDropped() {
+		Map<String, Integer> result = deduplicator.deduplicate(Map.of(
+				"Cuban Missile", 2,
+				"Missile Crisis", 2,
+				"Cuban Missile Crisis", 2));
+
+		assertEquals(Map.of("Cuban Missile Crisis", 2), result);
+	}
+
+	@Test
+	void caseAndPluralVariantsAreMerged() {
+		Map<String, Integer> result = deduplicator.deduplicate(Map.of(
+				"Light Reactions", 1,
+				"Light Reaction", 2,
+				"light reaction", 1));
+
+		assertEquals(Map.of("Light Reaction", 4), result);
+	}
+
+	@Test
+	void unrelatedPhrasesAreKept() {
+		Map<String, Integer> result = deduplicator.deduplicate(Map.of(
+				"Berlin Wall", 2,
+				"Marshall Plan", 1));
+
+		assertEquals(Map.of("Berlin Wall", 2, "Marshall Plan", 1), result);
+	}
+}
@@ -0,0 +1,49 @@
+package com.tossupflash.backend;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PipelineMetricsTests {
+
+	@Test
+	void stageThatThrowsIsStillTimed() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		PipelineMetrics metrics = new PipelineMetrics(registry);
+
+		assertThrows(IllegalStateException.class, () -> {
+			try (PipelineMetrics.StageTimer stage = metrics.startStage(PipelineMetrics.Stage.QBREADER_FETCH)) {
+				throw new IllegalStateException("QBReader timed out");
+			}
+		});
+
+		assertEquals(1, registry.get("flashcards.generation.stage").tag("stage", "qbreader_fetch").timer().count());
+	}
+
+	@Test
+	void upstreamCallIsTimedUntilTheResponseIsClosed() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		UpstreamMetricsInterceptor interceptor = new UpstreamMetricsInterceptor(new PipelineMetrics(registry));
+		MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET,
+				URI.create("https://en.wikipedia.org/api/rest_v1/page/summary/Nice"));
+
+		ClientHttpResponse response = interceptor.intercept(request, new byte[0], (req, body) ->
+				new MockClientHttpResponse("{}".getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+		response.getBody().readAllBytes();
+
+		assertEquals(0, registry.find("flashcards.upstream.latency").timers().size());
+		response.close();
+		response.close();
+		assertEquals(1, registry.get("flashcards.upstream.latency").tag("host", "en.wikipedia.org").timer().count());
+		assertEquals(1, registry.get("flashcards.upstream.requests").tag("outcome", "SUCCESS").counter().count());
+	}
+}
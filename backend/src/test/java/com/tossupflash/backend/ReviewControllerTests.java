@@ -0,0 +1,89 @@
+package com.tossupflash.backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReviewControllerTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	UserRepository users;
+
+	@Autowired
+	SavedFlashcardRepository cards;
+
+	@Autowired
+	JwtUtil jwtUtil;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Test
+	void dueCardsComeSoonestFirstAndGradingReschedulesThem() throws Exception {
+		User user = users.save(new User("reviewer", "reviewer@example.com", "unused"));
+		String auth = "Bearer " + jwtUtil.generateToken("reviewer", user.getId());
+		for (int i = 0; i < 5; i++) {
+			SavedFlashcard card = new SavedFlashcard("Card " + i, "Back", "Cold War", user);
+			card.setDueAt(LocalDateTime.now().minusHours(5 - i));
+			cards.save(card);
+		}
+		SavedFlashcard later = new SavedFlashcard("Later", "Back", "Cold War", user);
+		later.setDueAt(LocalDateTime.now().plusDays(3));
+		cards.save(later);
+
+		JsonNode due = json(mvc.perform(get("/reviews/due").param("limit", "2").header("Authorization", auth)));
+		assertEquals(5, due.get("due").asLong());
+		assertEquals("Card 0", due.get("cards").get(0).get("front").asText());
+		assertEquals("Card 1", due.get("cards").get(1).get("front").asText());
+
+		long id = due.get("cards").get(0).get("id").asLong();
+		JsonNode schedule = json(grade(auth, id, 4).andExpect(status().isOk()));
+		assertEquals(1, schedule.get("intervalDays").asInt());
+		assertEquals(4, json(mvc.perform(get("/reviews/due").header("Authorization", auth))).get("due").asLong());
+
+		mvc.perform(post("/reviews/" + id + "/grade").header("Authorization", auth)
+						.contentType(MediaType.APPLICATION_JSON).content("{\"grade\":9}"))
+				.andExpect(status().isBadRequest());
+		grade("Bearer " + jwtUtil.generateToken("someone-else", user.getId() + 1000), id, 4)
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void dueQueryIsAnsweredFromTheUserDueIndex() {
+		String plan = jdbc.queryForObject("EXPLAIN SELECT id FROM saved_flashcards WHERE user_id = 1"
+				+ " AND due_at <= CURRENT_TIMESTAMP ORDER BY user_id, due_at FETCH FIRST 20 ROWS ONLY", String.class);
+		assertTrue(plan.contains("IDX_SAVED_FLASHCARDS_USER_DUE"), plan);
+		assertTrue(plan.contains("index sorted"), plan);
+	}
+
+	private ResultActions grade(String auth, long id, int grade) throws Exception {
+		return mvc.perform(post("/reviews/" + id + "/grade").header("Authorization", auth)
+				.contentType(MediaType.APPLICATION_JSON).content("{\"grade\":" + grade + "}"));
+	}
+
+	private JsonNode json(ResultActions result) throws Exception {
+		return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+	}
+}
@@ -0,0 +1,35 @@
+package com.tossupflash.backend;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReviewScheduleTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 9, 0);
+
+	@Test
+	void recalledCardsGoOneThenSixDaysThenGrowByEase() {
+		ReviewSchedule schedule = new ReviewSchedule(0, 0, ReviewSchedule.INITIAL_EASE, NOW);
+
+		schedule = schedule.next(4, NOW);
+		assertEquals(new ReviewSchedule(1, 1, 2.5, NOW.plusDays(1)), schedule);
+		schedule = schedule.next(4, NOW);
+		assertEquals(6, schedule.intervalDays());
+		schedule = schedule.next(5, NOW);
+		assertEquals(15, schedule.intervalDays());
+		assertEquals(2.6, schedule.ease(), 1e-9);
+		assertEquals(NOW.plusDays(15), schedule.dueAt());
+	}
+
+	@Test
+	void forgottenCardsStartOverAndEaseNeverDropsBelowTheFloor() {
+		ReviewSchedule forgotten = new ReviewSchedule(3, 15, 1.5, NOW).next(1, NOW);
+
+		assertEquals(new ReviewSchedule(0, 1, ReviewSchedule.MIN_EASE, NOW.plusDays(1)), forgotten);
+		assertEquals(ReviewSchedule.MIN_EASE, forgotten.next(0, NOW).ease(), 1e-9);
+		assertThrows(IllegalArgumentException.class, () -> forgotten.next(6, NOW));
+	}
+}
@@ -0,0 +1,82 @@
+package com.tossupflash.backend;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SaveJournalTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void replaysAppendedSavesAndDropsATornTail() throws IOException {
+		Path path = dir.resolve("saves.journal");
+		try (SaveJournal journal = SaveJournal.open(path)) {
+			assertEquals(List.of(), journal.replay());
+			journal.append(List.of(save("a"), save("b")));
+			journal.append(List.of(save("c")));
+		}
+		long intact = Files.size(path);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+			// Half a record, as left by a crash mid-write
+			channel.write(ByteBuffer.wrap(new byte[] {0, 0, 1, 0, 7, 7}));
+		}
+
+		try (SaveJournal journal = SaveJournal.open(path)) {
+			List<SavedFlashcardWriteBehind.PendingSave> replayed = journal.replay();
+			assertEquals(List.of(save("a"), save("b"), save("c")), replayed);
+			assertEquals(intact, Files.size(path));
+			journal.append(List.of(save("d")));
+		}
+		try (SaveJournal journal = SaveJournal.open(path)) {
+			assertEquals(4, journal.replay().size());
+		}
+	}
+
+	@Test
+	void checkpointEmptiesTheJournalOnlyOnceEverythingIsCommitted() throws IOException {
+		Path path = dir.resolve("saves.journal");
+		try (SaveJournal journal = SaveJournal.open(path)) {
+			journal.replay();
+			journal.append(List.of(save("a"), save("b")));
+			journal.checkpoint(1);
+			try (SaveJournal reopened = SaveJournal.open(path)) {
+				assertEquals(2, reopened.replay().size());
+			}
+			journal.checkpoint(2);
+			assertEquals(0, Files.size(path));
+			journal.append(List.of(save("c")));
+			journal.checkpoint(3);
+			assertEquals(0, Files.size(path));
+		}
+	}
+
+	@Test
+	void keepsCardsLargerThanAModifiedUtf8String() throws IOException {
+		Path path = dir.resolve("saves.journal");
+		SavedFlashcardWriteBehind.PendingSave large = new SavedFlashcardWriteBehind.PendingSave("big", 7, "Front",
+				"Ω".repeat(40_000), "Topic", LocalDateTime.of(2025, 1, 21, 4, 15, 30));
+		try (SaveJournal journal = SaveJournal.open(path)) {
+			journal.replay();
+			journal.append(List.of(large));
+		}
+		try (SaveJournal journal = SaveJournal.open(path)) {
+			assertEquals(List.of(large), journal.replay());
+		}
+	}
+
+	private static SavedFlashcardWriteBehind.PendingSave save(String ref) {
+		return new SavedFlashcardWriteBehind.PendingSave(ref, 7, "Front " + ref, "Back with ünïcode\nand lines", "Topic",
+				LocalDateTime.of(2025, 1, 21, 4, 15, 30));
+	}
+}
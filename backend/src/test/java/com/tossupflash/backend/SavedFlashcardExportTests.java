@@ -0,0 +1,99 @@
+package com.tossupflash.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SavedFlashcardExportTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	UserRepository users;
+
+	@Autowired
+	SavedFlashcardRepository cards;
+
+	@Autowired
+	JwtUtil jwtUtil;
+
+	@Test
+	void exportsEveryCardAsCsvWithQuoting() throws Exception {
+		String token = userWithCards("csv-user", 1200);
+
+		String body = mvc.perform(get("/saved-flashcards/export").param("format", "csv")
+						.header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+		// Records end in CRLF; the quoted newline inside each back is a bare LF
+		String[] lines = body.split("\r\n");
+		assertEquals("front,back,topic,saved_at", lines[0]);
+		assertEquals(1201, lines.length);
+		assertTrue(lines[1].startsWith("Card 1199,\"Line one, with \"\"quotes\"\"\nline two\",Cold War,"));
+	}
+
+	@Test
+	void gzippedAnkiExportUsesFileHeadersAndTopicTags() throws Exception {
+		String token = userWithCards("anki-user", 3);
+
+		MvcResult result = mvc.perform(get("/saved-flashcards/export").param("format", "anki").param("gzip", "true")
+						.header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andReturn();
+		assertTrue(result.getResponse().getHeader("Content-Disposition").contains("flashcards.txt.gz"));
+
+		String body = gunzip(result.getResponse().getContentAsByteArray());
+		assertTrue(body.startsWith("#separator:tab\n#html:true\n#tags column:3\n"));
+		assertTrue(body.contains("Card 2\tLine one, with \"quotes\"<br>line two\tCold_War\n"));
+	}
+
+	@Test
+	void rejectsAnonymousAndUnknownFormats() throws Exception {
+		String token = userWithCards("format-user", 1);
+		mvc.perform(get("/saved-flashcards/export")).andExpect(status().isForbidden());
+		mvc.perform(get("/saved-flashcards/export").param("format", "xlsx")
+						.header("Authorization", "Bearer " + token))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void escapesFieldsPerFormat() {
+		assertEquals("plain", FlashcardExportFormat.csvField("plain"));
+		assertEquals("\"a,b\"", FlashcardExportFormat.csvField("a,b"));
+		assertEquals("a\\tb\\nc\\\\", FlashcardExportFormat.tsvField("a\tb\nc\\"));
+		assertEquals("&lt;i&gt; &amp;<br>x", FlashcardExportFormat.ankiField("<i> &\r\nx"));
+		assertEquals("Treaty_of_Versailles", FlashcardExportFormat.ankiTag(" Treaty of  Versailles "));
+	}
+
+	private String userWithCards(String username, int count) {
+		User user = users.save(new User(username, username + "@example.com", "unused"));
+		for (int i = 0; i < count; i++) {
+			SavedFlashcard card = new SavedFlashcard("Card " + i, "Line one, with \"quotes\"\nline two", "Cold War", user);
+			card.setSavedAt(card.getSavedAt().plusSeconds(i));
+			cards.save(card);
+		}
+		return jwtUtil.generateToken(username, user.getId());
+	}
+
+	private static String gunzip(byte[] bytes) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
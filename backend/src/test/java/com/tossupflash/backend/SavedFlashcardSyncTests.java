@@ -0,0 +1,182 @@
+package com.tossupflash.backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SavedFlashcardSyncTests {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	UserRepository users;
+
+	@Autowired
+	JwtUtil jwtUtil;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	SavedFlashcardRepository savedFlashcards;
+
+	@Autowired
+	SavedFlashcardChangeRepository changes;
+
+	@Autowired
+	RemoteCache remote;
+
+	@Autowired
+	SavedFlashcardSync sync;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Test
+	void changesSinceAVersionAreServedAsDeltas() throws Exception {
+		String auth = authFor("delta-user");
+		long first = save(auth, "First");
+		long second = save(auth, "Second");
+		mvc.perform(delete("/saved-flashcards/" + first).header("Authorization", auth)).andExpect(status().isOk());
+
+		mvc.perform(get("/saved-flashcards").header("Authorization", auth))
+				.andExpect(header().string(SavedFlashcardController.VERSION_HEADER, "3"));
+
+		JsonNode all = changes(auth, 0);
+		assertFalse(all.get("reset").asBoolean());
+		assertEquals(3, all.get("version").asLong());
+		assertEquals(3, all.get("changes").size());
+		// The first card is gone again by version 3, so its save carries no card
+		assertTrue(all.get("changes").get(0).get("card").isNull());
+		assertEquals("SAVED", all.get("changes").get(1).get("kind").asText());
+		assertEquals("Second", all.get("changes").get(1).get("card").get("front").asText());
+		assertEquals(second, all.get("changes").get(1).get("id").asLong());
+		assertEquals("DELETED", all.get("changes").get(2).get("kind").asText());
+		assertEquals(first, all.get("changes").get(2).get("id").asLong());
+
+		JsonNode latest = changes(auth, 2);
+		assertEquals(1, latest.get("changes").size());
+		assertEquals(3, latest.get("changes").get(0).get("version").asLong());
+
+		assertEquals(0, changes(auth, 3).get("changes").size());
+		// A version the log cannot account for means the client reloads the list
+		assertTrue(changes(auth, 7).get("reset").asBoolean());
+	}
+
+	@Test
+	void streamStartsWithTheBacklogThenPushesCommittedChanges() throws Exception {
+		String auth = authFor("stream-user");
+		save(auth, "Before");
+
+		MockHttpServletResponse stream = mvc.perform(get("/saved-flashcards/changes/stream").param("since", "0")
+						.header("Authorization", auth))
+				.andExpect(request().asyncStarted())
+				.andReturn().getResponse();
+		save(auth, "After");
+
+		String events = awaitEvent(stream, "\"front\":\"After\"");
+		assertTrue(events.contains("\"front\":\"Before\""));
+		assertTrue(events.contains("id:2\n"));
+		assertTrue(events.contains("\"front\":\"After\""));
+	}
+
+	@Test
+	void changesCommittedOnAnotherNodeReachTheStreamByAnnouncementOrHeartbeat() throws Exception {
+		String auth = authFor("remote-user");
+		long userId = users.findByUsername("remote-user").orElseThrow().getId();
+		MockHttpServletResponse stream = mvc.perform(get("/saved-flashcards/changes/stream").param("since", "0")
+						.header("Authorization", auth))
+				.andExpect(request().asyncStarted())
+				.andReturn().getResponse();
+
+		// Another node commits and announces it over the shared tier
+		long version = commitElsewhere(userId, "Announced");
+		remote.publish(SavedFlashcardSync.COMMIT_CHANNEL, "other-node " + userId + " " + version);
+		assertTrue(awaitEvent(stream, "\"front\":\"Announced\"").contains("\"front\":\"Announced\""));
+
+		// An announcement that never arrives still shows up as a version jump in the heartbeat
+		long unannounced = commitElsewhere(userId, "Unannounced");
+		sync.heartbeat();
+		String heartbeat = "{\"version\":" + unannounced + ",\"reset\":false,\"changes\":[]}";
+		assertTrue(awaitEvent(stream, heartbeat).contains(heartbeat));
+	}
+
+	@Test
+	void changeFeedRequiresAuthentication() throws Exception {
+		mvc.perform(get("/saved-flashcards/changes").param("since", "0")).andExpect(status().isForbidden());
+		mvc.perform(get("/saved-flashcards/changes/stream").param("since", "0")).andExpect(status().isForbidden());
+	}
+
+	/**
+	 * Records a save the way another node would, without this node's commit event
+	 */
+	private long commitElsewhere(long userId, String front) {
+		return transactionTemplate.execute(status -> {
+			User user = users.findById(userId).orElseThrow();
+			SavedFlashcard card = savedFlashcards.save(new SavedFlashcard(front, "Back", "Cold War", user));
+			users.advanceSavedCardsVersion(userId, 1);
+			long version = users.findSavedCardsVersion(userId).orElseThrow();
+			changes.save(new SavedFlashcardChange(userId, version, SavedFlashcardChange.Kind.SAVED, card.getId()));
+			return version;
+		});
+	}
+
+	private String authFor(String username) {
+		User user = users.save(new User(username, username + "@example.com", "unused"));
+		return "Bearer " + jwtUtil.generateToken(username, user.getId());
+	}
+
+	private long save(String auth, String front) throws Exception {
+		return json(mvc.perform(post("/saved-flashcards").header("Authorization", auth)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"front\":\"" + front + "\",\"back\":\"Back\",\"topic\":\"Cold War\"}")))
+				.get("id").asLong();
+	}
+
+	private JsonNode changes(String auth, long since) throws Exception {
+		return json(mvc.perform(get("/saved-flashcards/changes").param("since", Long.toString(since))
+				.header("Authorization", auth)));
+	}
+
+	private JsonNode json(ResultActions result) throws Exception {
+		return objectMapper.readTree(result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+	}
+
+	/**
+	 * Waits for the stream to contain the given text; heartbeats may arrive in between
+	 */
+	private static String awaitEvent(MockHttpServletResponse stream, String text) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		String events = "";
+		while (System.currentTimeMillis() < deadline) {
+			events = stream.getContentAsString(StandardCharsets.UTF_8);
+			if (events.contains(text)) {
+				break;
+			}
+			Thread.sleep(20);
+		}
+		return events;
+	}
+}
@@ -0,0 +1,77 @@
+package com.tossupflash.backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SavedFlashcardWriteBehindTests {
+
+	@DynamicPropertySource
+	static void writeBehind(DynamicPropertyRegistry registry) throws IOException {
+		Path journal = Files.createTempDirectory("saves").resolve("saves.journal");
+		registry.add("flashcards.saves.write-behind", () -> "true");
+		registry.add("flashcards.saves.journal", journal::toString);
+	}
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	UserRepository users;
+
+	@Autowired
+	SavedFlashcardRepository cards;
+
+	@Autowired
+	JwtUtil jwtUtil;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Test
+	void savesAreAcknowledgedVisibleAtOnceAndCommittedInTheBackground() throws Exception {
+		User user = users.save(new User("behind", "behind@example.com", "unused"));
+		String auth = "Bearer " + jwtUtil.generateToken("behind", user.getId());
+
+		for (int i = 0; i < 20; i++) {
+			String saved = mvc.perform(post("/saved-flashcards").header("Authorization", auth)
+							.contentType(MediaType.APPLICATION_JSON)
+							.content("{\"front\":\"Card " + i + "\",\"back\":\"Back\",\"topic\":\"Cold War\"}"))
+					.andExpect(status().isAccepted())
+					.andReturn().getResponse().getContentAsString();
+			assertTrue(objectMapper.readTree(saved).get("writeRef").isTextual());
+		}
+
+		// Read-your-writes: every card is listed whether or not its batch has committed yet
+		JsonNode listed = objectMapper.readTree(mvc.perform(get("/saved-flashcards").header("Authorization", auth))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+		assertEquals(20, listed.size());
+		assertEquals("Card 19", listed.get(0).get("front").asText());
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (cards.findByUserIdOrderBySavedAtDesc(user.getId()).size() < 20 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertEquals(20, cards.findByUserIdOrderBySavedAtDesc(user.getId()).size());
+		assertTrue(users.findSavedCardsVersion(user.getId()).orElseThrow() > 0);
+	}
+}
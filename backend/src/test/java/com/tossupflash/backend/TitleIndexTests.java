@@ -0,0 +1,69 @@
+package com.tossupflash.backend;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TitleIndexTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void resolvesPhrasesThatDropConnectingWordsAndCase() throws IOException {
+		TitleIndex index = build(List.of("page_title", "Treaty_of_Versailles", "Berlin_Wall", "Bay_of_Pigs_Invasion"), null);
+
+		assertEquals(Optional.of("Treaty_of_Versailles"), index.resolve("Treaty Versailles"));
+		assertEquals(Optional.of("Berlin_Wall"), index.resolve("berlin wall"));
+		assertEquals(Optional.of("Bay_of_Pigs_Invasion"), index.resolve("Bay Pigs Invasion"));
+		assertEquals(Optional.empty(), index.resolve("Versailles Germany"));
+	}
+
+	@Test
+	void redirectsResolveToTheirTargetAndArticlesWinOverRedirects() throws IOException {
+		TitleIndex index = build(
+				List.of("Cuban_Missile_Crisis", "Cuban_missile_crisis", "October_Crisis_of_1962", "Missile_Crisis"),
+				List.of("Cuban_missile_crisis\tCuban_Missile_Crisis", "October_Crisis_of_1962\tCuban_Missile_Crisis",
+						"Missile_Crisis\tCuban_Missile_Crisis"));
+
+		assertEquals(Optional.of("Cuban_Missile_Crisis"), index.resolve("Cuban Missile Crisis"));
+		assertEquals(Optional.of("Cuban_Missile_Crisis"), index.resolve("October Crisis"));
+		assertEquals(Optional.of("Cuban_Missile_Crisis"), index.resolve("Missile Crisis"));
+	}
+
+	@Test
+	void findsEveryKeyAcrossBlocks() throws IOException {
+		List<String> titles = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			String word = "" + (char) ('a' + i / 26 % 26) + (char) ('a' + i % 26) + "word";
+			titles.add("Article_" + word);
+		}
+		TitleIndex index = build(titles, null);
+
+		for (String title : titles) {
+			assertEquals(Optional.of(title), index.resolve(title.replace('_', ' ')), title);
+		}
+		assertEquals(Optional.empty(), index.resolve("Article"));
+		assertEquals(Optional.empty(), index.resolve("Zzz Unknown"));
+	}
+
+	@Test
+	void passThroughKeepsPreviousBehaviour() {
+		assertEquals(Optional.of("Versailles_Germany"), TitleIndex.passThrough().resolve("Versailles Germany"));
+	}
+
+	private TitleIndex build(List<String> titles, List<String> redirects) throws IOException {
+		Path titleFile = Files.write(dir.resolve("titles.txt"), titles);
+		Path redirectFile = redirects != null ? Files.write(dir.resolve("redirects.tsv"), redirects) : null;
+		Path output = dir.resolve("titles.idx");
+		TitleIndexBuilder.build(titleFile, redirectFile, output);
+		return TitleIndex.open(output);
+	}
+}
@@ -0,0 +1,89 @@
+package com.tossupflash.backend;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopicSuggestionIndexTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void suggestsCleanedAnswerLinesByAnyWordPrefix() throws IOException {
+		TopicSuggestionIndex index = indexWithAnswers(
+				"<b><u>Cold War</u></b> [accept Second Cold War]",
+				"Cold War",
+				"<b>Colditz</b> (prompt on castle)",
+				"Treaty of Versailles",
+				"Émile Durkheim");
+
+		assertEquals(List.of("Cold War", "Colditz"), index.suggest("col", 8));
+		assertEquals(List.of("Cold War"), index.suggest("cold w", 8));
+		assertEquals(List.of("Cold War"), index.suggest("war", 8));
+		assertEquals(List.of("Treaty of Versailles"), index.suggest("versail", 8));
+		assertEquals(List.of("Émile Durkheim"), index.suggest("emile", 8));
+		assertEquals(List.of(), index.suggest("xyz", 8));
+		assertEquals(List.of(), index.suggest("  ", 8));
+	}
+
+	@Test
+	void generatedTopicsAppearAfterRebuildAndOutrankCorpusAnswers() throws IOException {
+		TopicSuggestionIndex index = indexWithAnswers("Photosynthesis", "Photosynthesis", "Photoelectric Effect");
+		index.recordGenerated("Photon", "user:1");
+		index.recordGenerated("photon ", "user:2");
+		index.recordGenerated("Photon", "ip:10.0.0.3");
+
+		// Served from the old snapshot until the next rebuild swaps it
+		assertEquals(List.of("Photosynthesis", "Photoelectric Effect"), index.suggest("photo", 8));
+
+		index.rebuild();
+		assertEquals(List.of("Photon", "Photosynthesis", "Photoelectric Effect"), index.suggest("pho", 8));
+		assertEquals(List.of("Photon"), index.suggest("pho", 1));
+	}
+
+	@Test
+	void topicsFromASingleCallerAreNotSuggested() throws IOException {
+		TopicSuggestionIndex index = indexWithAnswers("Photosynthesis");
+		for (int i = 0; i < 20; i++) {
+			index.recordGenerated("Photo Spam", "ip:10.0.0.9");
+		}
+		index.recordGenerated("Photon", "user:1");
+		index.recordGenerated("Photon", "user:2");
+
+		index.rebuild();
+		assertEquals(List.of("Photosynthesis"), index.suggest("photo", 8));
+
+		index.recordGenerated("Photon", "user:3");
+		index.rebuild();
+		assertEquals(List.of("Photon", "Photosynthesis"), index.suggest("photo", 8));
+	}
+
+	@Test
+	void shortPrefixesKeepOnlyTheBestMatches() throws IOException {
+		String[] answers = new String[60];
+		for (int i = 0; i < answers.length; i++) {
+			answers[i] = "Topic " + (char) ('a' + i % 26) + (char) ('a' + i / 26);
+		}
+		TopicSuggestionIndex index = indexWithAnswers(answers);
+
+		List<String> suggestions = index.suggest("t", 100);
+		assertEquals(TopicSuggestionIndex.MAX_LIMIT, suggestions.size());
+		assertTrue(suggestions.containsAll(index.suggest("top", 5)));
+	}
+
+	private TopicSuggestionIndex indexWithAnswers(String... answers) throws IOException {
+		FlashcardProperties properties = new FlashcardProperties();
+		properties.getSuggest().setAnswersFile(Files.write(dir.resolve("answers.txt"), List.of(answers)).toString());
+		TopicSuggestionIndex index = new TopicSuggestionIndex(properties, new PipelineMetrics(new SimpleMeterRegistry()));
+		index.rebuild();
+		return index;
+	}
+}
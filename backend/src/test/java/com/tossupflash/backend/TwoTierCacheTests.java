@@ -0,0 +1,89 @@
+package com.tossupflash.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TwoTierCacheTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+	private final FlashcardProperties.Cache settings = new FlashcardProperties.Cache();
+
+	private TwoTierCache<String> cache(RemoteCache remote) {
+		return new TwoTierCache<>("test", objectMapper.constructType(String.class), Duration.ofMinutes(1),
+				settings, remote, objectMapper, metrics);
+	}
+
+	@Test
+	void secondNodeIsServedFromSharedTier() {
+		RemoteCache shared = new LocalRemoteCache(100);
+		TwoTierCache<String> nodeA = cache(shared);
+		TwoTierCache<String> nodeB = cache(shared);
+
+		assertEquals("summary", nodeA.get("Berlin Wall", () -> "summary"));
+		assertEquals("summary", nodeB.get("Berlin Wall", () -> "reloaded"));
+	}
+
+	@Test
+	void invalidationReachesOtherNodesNearTier() {
+		RemoteCache shared = new LocalRemoteCache(100);
+		TwoTierCache<String> nodeA = cache(shared);
+		TwoTierCache<String> nodeB = cache(shared);
+		nodeA.get("Berlin Wall", () -> "old");
+		nodeB.get("Berlin Wall", () -> "old");
+
+		nodeA.invalidate("Berlin Wall");
+
+		assertEquals("new", nodeB.get("Berlin Wall", () -> "new"));
+	}
+
+	@Test
+	void nullIsNotCached() {
+		TwoTierCache<String> cache = cache(new LocalRemoteCache(100));
+
+		assertNull(cache.get("Berlin Wall", () -> null));
+		assertEquals("summary", cache.get("Berlin Wall", () -> "summary"));
+	}
+
+	@Test
+	void concurrentMissesShareOneLoad() throws Exception {
+		TwoTierCache<String> cache = cache(new LocalRemoteCache(100));
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService callers = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(callers.submit(() -> cache.get("Berlin Wall", () -> {
+					loads.incrementAndGet();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return "summary";
+				})));
+			}
+			Thread.sleep(200);
+			release.countDown();
+			for (Future<String> result : results) {
+				assertEquals("summary", result.get());
+			}
+			assertEquals(1, loads.get());
+		} finally {
+			callers.shutdownNow();
+		}
+	}
+}
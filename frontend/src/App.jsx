@@ -1,4 +1,4 @@
-import { useState, useEffect } from 'react'
+import { useState, useEffect, useRef } from 'react'
 import axios from 'axios'
 import Flashcard from './Flashcard'
 import './App.css'
@@ -17,6 +17,30 @@ function App() {
   const [savedFlashcards, setSavedFlashcards] = useState([])
   const [loading, setLoading] = useState(false)
   const [error, setError] = useState('')
+  const [topicSuggestions, setTopicSuggestions] = useState([])
+  const [reviewQueue, setReviewQueue] = useState([])
+  const [dueCount, setDueCount] = useState(0)
+  const [showAnswer, setShowAnswer] = useState(false)
+  // Collection version the saved list reflects; deltas after it come from the change stream
+  const savedVersion = useRef(null)
+
+  // Suggest known topics while typing, so misspellings don't turn into empty decks
+  useEffect(() => {
+    const prefix = topic.trim()
+    if (prefix.length < 2) {
+      setTopicSuggestions([])
+      return
+    }
+    const timer = setTimeout(async () => {
+      try {
+        const response = await axios.get(`/topics/suggest?prefix=${encodeURIComponent(prefix)}&limit=8`)
+        setTopicSuggestions(response.data)
+      } catch (err) {
+        setTopicSuggestions([])
+      }
+    }, 150)
+    return () => clearTimeout(timer)
+  }, [topic])
 
   // Check for existing auth token on app load
   useEffect(() => {
@@ -28,22 +52,154 @@ function App() {
     }
   }, [])
 
-  // Load saved flashcards when user logs in or tab switches to saved
+  // Load saved flashcards once per login, then keep them current from the change stream
+  // instead of reloading the whole list
   useEffect(() => {
-    if (user && activeTab === 'saved') {
-      loadSavedFlashcards()
+    if (!user) {
+      return
+    }
+    const controller = new AbortController()
+    const sync = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          if (savedVersion.current == null) {
+            await loadSavedFlashcards()
+          }
+          if (savedVersion.current != null) {
+            await streamSavedChanges(controller.signal)
+          }
+        } catch (err) {
+          if (controller.signal.aborted) {
+            return
+          }
+          console.error('Saved cards stream interrupted:', err)
+        }
+        // Streams end on a server timeout too; reconnect from the version we have
+        await new Promise(resolve => setTimeout(resolve, 2000))
+      }
+    }
+    sync()
+    return () => controller.abort()
+  }, [user])
+
+  // Load the next due cards when the review tab opens
+  useEffect(() => {
+    if (user && activeTab === 'review') {
+      loadDueCards()
     }
   }, [user, activeTab])
 
+  const loadDueCards = async () => {
+    try {
+      const response = await axios.get('/reviews/due?limit=50')
+      setDueCount(response.data.due)
+      setReviewQueue(response.data.cards)
+      setShowAnswer(false)
+    } catch (err) {
+      console.error('Error loading due cards:', err)
+    }
+  }
+
+  // Grades follow SM-2: below 3 counts as forgotten
+  const gradeCard = async (card, grade) => {
+    if (!card.relearn) {
+      try {
+        await axios.post(`/reviews/${card.id}/grade`, { grade })
+      } catch (err) {
+        console.error('Error grading card:', err)
+        setError('Failed to record review')
+        return
+      }
+      setDueCount(count => Math.max(0, count - 1))
+    }
+    setShowAnswer(false)
+    const rest = reviewQueue.slice(1)
+    if (grade < 4) {
+      // Weak answers come back for practice before the session ends; only the first grade is recorded
+      setReviewQueue([...rest, { ...card, relearn: true }])
+      return
+    }
+    if (rest.length === 0) {
+      loadDueCards()
+    } else {
+      setReviewQueue(rest)
+    }
+  }
+
   const loadSavedFlashcards = async () => {
     try {
       const response = await axios.get('/saved-flashcards')
       setSavedFlashcards(response.data)
+      const version = response.headers['saved-cards-version']
+      savedVersion.current = version != null ? Number(version) : null
     } catch (err) {
       console.error('Error loading saved flashcards:', err)
     }
   }
 
+  // Server-sent events over fetch, so the stream can carry the Authorization header
+  const streamSavedChanges = async (signal) => {
+    const response = await fetch(`/saved-flashcards/changes/stream?since=${savedVersion.current}`, {
+      headers: { Authorization: `Bearer ${user.token}`, Accept: 'text/event-stream' },
+      signal
+    })
+    if (!response.ok) {
+      throw new Error(`Change stream failed with status ${response.status}`)
+    }
+    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader()
+    let buffer = ''
+    while (true) {
+      const { value, done } = await reader.read()
+      if (done) {
+        return
+      }
+      buffer += value
+      let end
+      while ((end = buffer.indexOf('\n\n')) >= 0) {
+        const data = buffer.slice(0, end).split('\n')
+          .filter(line => line.startsWith('data:'))
+          .map(line => line.slice(5).replace(/^ /, ''))
+          .join('\n')
+        buffer = buffer.slice(end + 2)
+        if (data) {
+          await applySavedChanges(JSON.parse(data))
+        }
+      }
+    }
+  }
+
+  // Applies a change feed; every version is listed, so a jump means a missed event. Heartbeats
+  // are feeds with no changes that only carry the current version.
+  const applySavedChanges = async (feed) => {
+    if (feed.reset) {
+      await loadSavedFlashcards()
+      return
+    }
+    const version = savedVersion.current
+    const changes = feed.changes.filter(change => change.version > version)
+    const missed = changes.length > 0 ? changes[0].version > version + 1 : feed.version > version
+    if (missed) {
+      const response = await axios.get(`/saved-flashcards/changes?since=${version}`)
+      await applySavedChanges(response.data)
+      return
+    }
+    setSavedFlashcards(prev => changes.reduce((cards, change) => {
+      if (change.kind === 'DELETED') {
+        return cards.filter(card => card.id !== change.id)
+      }
+      return change.card ? withSavedCard(cards, change.card) : cards
+    }, prev))
+    savedVersion.current = Math.max(version, feed.version)
+  }
+
+  // Puts a card at the top, replacing its earlier copy (or its write-behind placeholder)
+  const withSavedCard = (cards, saved) => [
+    saved,
+    ...cards.filter(card => card.id == null
+      ? card.writeRef == null || card.writeRef !== saved.writeRef
+      : card.id !== saved.id)
+  ]
+
   // Authentication functions
   const handleAuth = async (authData) => {
     try {
@@ -75,6 +231,7 @@ function App() {
     localStorage.removeItem('username')
     delete axios.defaults.headers.common['Authorization']
     setSavedFlashcards([])
+    savedVersion.current = null
     setActiveTab('generate')
   }
 
@@ -117,7 +274,7 @@ function App() {
     }
 
     try {
-      await axios.post('/saved-flashcards', {
+      const response = await axios.post('/saved-flashcards', {
         front: flashcard.front,
         back: flashcard.back,
         topic: topic
@@ -126,10 +283,9 @@ function App() {
       // Show success (you could add a toast notification here)
       console.log('Flashcard saved successfully')
       
-      // Reload saved flashcards if we're on that tab
-      if (activeTab === 'saved') {
-        loadSavedFlashcards()
-      }
+      // Add the saved card locally instead of refetching the whole list; the change stream
+      // may have delivered it already
+      setSavedFlashcards(prev => withSavedCard(prev, response.data))
     } catch (err) {
       console.error('Error saving flashcard:', err)
       setError('Failed to save flashcard')
@@ -137,10 +293,20 @@ function App() {
   }
 
   // Delete saved flashcard
-  const deleteSavedFlashcard = async (id) => {
+  const deleteSavedFlashcard = async (flashcard) => {
     try {
+      let id = flashcard.id
+      if (id == null) {
+        // Write-behind save not in the database yet when it was listed: look up its id now
+        const response = await axios.get('/saved-flashcards')
+        id = response.data.find(card => card.writeRef === flashcard.writeRef)?.id
+        if (id == null) {
+          setError('This card is still being saved, try again in a moment')
+          return
+        }
+      }
       await axios.delete(`/saved-flashcards/${id}`)
-      setSavedFlashcards(savedFlashcards.filter(card => card.id !== id))
+      setSavedFlashcards(prev => prev.filter(card => card !== flashcard))
     } catch (err) {
       console.error('Error deleting flashcard:', err)
       setError('Failed to delete flashcard')
@@ -199,6 +365,18 @@ function App() {
           >
             Saved Cards ({user ? savedFlashcards.length : '0'})
           </button>
+          <button 
+            className={`tab ${activeTab === 'review' ? 'active' : ''}`}
+            onClick={() => {
+              if (!user) {
+                setShowAuthModal(true)
+                return
+              }
+              setActiveTab('review')
+            }}
+          >
+            Review{user && activeTab === 'review' ? ` (${dueCount >= 1000 ? '1000+' : dueCount} due)` : ''}
+          </button>
         </div>
       </header>
 
@@ -217,7 +395,14 @@ function App() {
                   placeholder="Enter a topic (e.g., Cold War, Renaissance, DNA)"
                   className="topic-input"
                   disabled={loading}
+                  list="topic-suggestions"
+                  autoComplete="off"
                 />
+                <datalist id="topic-suggestions">
+                  {topicSuggestions.map((suggestion) => (
+                    <option key={suggestion} value={suggestion} />
+                  ))}
+                </datalist>
                 
                 <select
                   value={category}
@@ -325,12 +510,12 @@ function App() {
                   <div className="flashcards-grid">
                     {savedFlashcards.map((flashcard) => (
                       <Flashcard 
-                        key={flashcard.id} 
+                        key={flashcard.id ?? flashcard.writeRef} 
                         front={flashcard.front} 
                         back={flashcard.back}
                         topic={flashcard.topic}
                         savedAt={flashcard.savedAt}
-                        onDelete={() => deleteSavedFlashcard(flashcard.id)}
+                        onDelete={() => deleteSavedFlashcard(flashcard)}
                         showDeleteButton={true}
                       />
                     ))}
@@ -356,6 +541,48 @@ function App() {
             )}
           </div>
         )}
+
+        {/* Review Tab */}
+        {activeTab === 'review' && (
+          <div className="review-section">
+            {reviewQueue.length > 0 ? (
+              <>
+                <div className="flashcards-header">
+                  <h2>🧠 Review ({dueCount >= 1000 ? '1000+' : dueCount} due)</h2>
+                  <p className="flashcards-subtitle">{reviewQueue[0].topic}</p>
+                </div>
+                <div className="review-card">
+                  <h3 className="review-front">{reviewQueue[0].front}</h3>
+                  {showAnswer ? (
+                    <>
+                      <p className="review-back">{reviewQueue[0].back}</p>
+                      <div className="review-grades">
+                        <button onClick={() => gradeCard(reviewQueue[0], 1)} className="grade-button again">Again</button>
+                        <button onClick={() => gradeCard(reviewQueue[0], 3)} className="grade-button">Hard</button>
+                        <button onClick={() => gradeCard(reviewQueue[0], 4)} className="grade-button">Good</button>
+                        <button onClick={() => gradeCard(reviewQueue[0], 5)} className="grade-button">Easy</button>
+                      </div>
+                    </>
+                  ) : (
+                    <button onClick={() => setShowAnswer(true)} className="generate-button">
+                      Show Answer
+                    </button>
+                  )}
+                </div>
+              </>
+            ) : (
+              <div className="placeholder-section">
+                <div className="placeholder-content">
+                  <div className="placeholder-icon">🧠</div>
+                  <h2>Nothing Due for Review</h2>
+                  <p className="placeholder-description">
+                    Saved cards come up for review on a spaced schedule. Check back later or save more cards.
+                  </p>
+                </div>
+              </div>
+            )}
+          </div>
+        )}
       </main>
 
       {/* Authentication Modal */}
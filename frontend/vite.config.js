@@ -8,7 +8,9 @@ export default defineConfig({
     proxy: {
       '/flashcards': 'http://localhost:8080',
       '/auth': 'http://localhost:8080',
-      '/saved-flashcards': 'http://localhost:8080'
+      '/saved-flashcards': 'http://localhost:8080',
+      '/topics': 'http://localhost:8080',
+      '/reviews': 'http://localhost:8080'
     }
   }
 })